@@ -0,0 +1,108 @@
+package gov.nasa.pds.api.registry.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.search.TotalHits;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+
+/**
+ * Recorded registry documents (the _source of a bundle, a collection and an observational product
+ * as harvest writes them) and the objects the service builds around them.
+ */
+final class Fixtures {
+  static final String[] KINDS = {"bundle", "collection", "observational"};
+  static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+  private Fixtures() {}
+
+  /** @return the recorded _source named kind as OpenSearch hands it out from getSourceAsMap() */
+  static Map<String, Object> source(String kind) {
+    try (InputStream stream = Fixtures.class.getResourceAsStream("/sources/" + kind + ".json")) {
+      return MAPPER.readValue(stream, new TypeReference<LinkedHashMap<String, Object>>() {});
+    } catch (IOException ioe) {
+      throw new UncheckedIOException(ioe);
+    }
+  }
+
+  static byte[] sourceBytes(Map<String, Object> source) {
+    try {
+      return MAPPER.writeValueAsBytes(source);
+    } catch (IOException ioe) {
+      throw new UncheckedIOException(ioe);
+    }
+  }
+
+  /**
+   * @return a page of count hits cycling through the recorded documents with distinct lidvids
+   */
+  @SuppressWarnings("unchecked")
+  static SearchHits page(int count) {
+    List<SearchHit> hits = new ArrayList<SearchHit>(count);
+
+    for (int i = 0; i < count; i++) {
+      Map<String, Object> source = Fixtures.source(KINDS[i % KINDS.length]);
+      String lid = source.get("lid") + "_" + i;
+
+      source.put("lid", lid);
+      source.put("lidvid", lid + "::" + source.get("vid"));
+      hits.add(new SearchHit(i, (String) source.get("lidvid"), null, Collections.emptyMap(),
+          Collections.emptyMap()).sourceRef(new BytesArray(Fixtures.sourceBytes(source))));
+    }
+    return new SearchHits(hits.toArray(new SearchHit[0]),
+        new TotalHits(count, TotalHits.Relation.EQUAL_TO), 1.0f);
+  }
+
+  /** business objects read the base URL of their links from the current servlet request */
+  static void bindRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+    request.setServerName("pds.nasa.gov");
+    request.setServerPort(443);
+    request.setScheme("https");
+    request.setContextPath("/api/search/1");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+  }
+
+  /** a registry connection for building requests; it cannot talk to OpenSearch */
+  static ConnectionContext connection() {
+    return new ConnectionContext() {
+      @Override
+      public String getRegistryIndex() {
+        return "registry";
+      }
+
+      @Override
+      public String getRegistryRefIndex() {
+        return "registry-refs";
+      }
+
+      @Override
+      public RestHighLevelClient getRestHighLevelClient() {
+        throw new UnsupportedOperationException("benchmarks do not search");
+      }
+
+      @Override
+      public int getTimeOutSeconds() {
+        return 60;
+      }
+    };
+  }
+}
@@ -0,0 +1,94 @@
+package gov.nasa.pds.api.registry.benchmarks;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gov.nasa.pds.api.registry.model.BlobUtil;
+import gov.nasa.pds.api.registry.model.Pds4ProductFactory;
+import gov.nasa.pds.api.registry.model.ProductBusinessObject;
+import gov.nasa.pds.model.Pds4Product;
+
+/**
+ * Per document work done on every hit: filtering its properties and decoding its label, either as
+ * a whole or streamed to where it is written.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductBenchmark {
+  @Param({"bundle", "collection", "observational"})
+  public String kind;
+
+  private Map<String, Object> source;
+  private String lidvid, xmlBlob, jsonBlob;
+  private final List<String> fields = Arrays.asList("lidvid", "title", "product_class",
+      "pds:Time_Coordinates.pds:start_date_time", "pds:Time_Coordinates.pds:stop_date_time",
+      "ops:Label_File_Info.ops:file_ref", "ref_lid_target");
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    this.source = Fixtures.source(this.kind);
+    this.lidvid = (String) this.source.get("lidvid");
+    this.xmlBlob = ((List<String>) this.source.get(BlobUtil.XML_BLOB_PROPERTY)).get(0);
+    this.jsonBlob = ((List<String>) this.source.get(BlobUtil.JSON_BLOB_PROPERTY)).get(0);
+  }
+
+  @Benchmark
+  public Map<String, List<String>> filteredPropertiesAll() {
+    return ProductBusinessObject.getFilteredProperties(this.source, null, null);
+  }
+
+  @Benchmark
+  public Map<String, List<String>> filteredPropertiesSome() {
+    return ProductBusinessObject.getFilteredProperties(this.source, this.fields, null);
+  }
+
+  @Benchmark
+  public String blobToStringXml() throws Exception {
+    return BlobUtil.blobToString(this.xmlBlob);
+  }
+
+  @Benchmark
+  public String blobToStringJson() throws Exception {
+    return BlobUtil.blobToString(this.jsonBlob);
+  }
+
+  @Benchmark
+  public void blobToStreamXml() throws Exception {
+    BlobUtil.blobToStream(this.xmlBlob, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public void blobToStreamJson() throws Exception {
+    BlobUtil.blobToStream(this.jsonBlob, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public Pds4Product createProductXml() {
+    return Pds4ProductFactory.createProduct(this.lidvid, this.source, false);
+  }
+
+  @Benchmark
+  public Pds4Product createProductJson() {
+    return Pds4ProductFactory.createProduct(this.lidvid, this.source, true);
+  }
+}
@@ -0,0 +1,102 @@
+package gov.nasa.pds.api.registry.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.RequestBuildContext;
+import gov.nasa.pds.api.registry.RequestConstructionContext;
+import gov.nasa.pds.api.registry.model.ProductQueryBuilderUtil;
+import gov.nasa.pds.api.registry.model.identifiers.PdsProductIdentifier;
+import gov.nasa.pds.api.registry.search.RequestBuildContextFactory;
+import gov.nasa.pds.api.registry.search.SearchRequestFactory;
+
+/**
+ * Turning the q= parameter into a query and the query into an OpenSearch request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBenchmark {
+  @Param({"ref_lid_target eq \"urn:nasa:pds:context:target:planet.mars\"",
+      "((pds:Time_Coordinates/pds:start_date_time ge \"2021-02-18T00:00:00Z\" and "
+          + "pds:Time_Coordinates/pds:stop_date_time le \"2021-06-30T23:59:59Z\") and "
+          + "(product_class eq \"Product_Observational\" or "
+          + "product_class eq \"Product_Collection\"))",
+      "(ref_lid_instrument eq \"urn:nasa:pds:context:instrument:mars2020.mastcamz\" and not "
+          + "(pds:Primary_Result_Summary/pds:processing_level eq \"Raw\"))"})
+  public String q;
+
+  private ConnectionContext connection;
+  private RequestConstructionContext construction;
+  private RequestBuildContext build;
+
+  @Setup
+  public void setup() {
+    this.connection = Fixtures.connection();
+    this.construction = new RequestConstructionContext() {
+      @Override
+      public List<String> getKeywords() {
+        return Arrays.asList();
+      }
+
+      @Override
+      public Map<String, List<String>> getKeyValuePairs() {
+        return new HashMap<String, List<String>>();
+      }
+
+      @Override
+      public PdsProductIdentifier getProductIdentifier() {
+        return null;
+      }
+
+      @Override
+      public String getProductIdentifierString() {
+        return "";
+      }
+
+      @Override
+      public String getQueryString() {
+        return RequestBenchmark.this.q;
+      }
+
+      @Override
+      public boolean isTerm() {
+        return false;
+      }
+    };
+    this.build = RequestBuildContextFactory.given(true,
+        Arrays.asList("lidvid", "title", "product_class", "ref_lid_target"));
+  }
+
+  @Benchmark
+  public BoolQueryBuilder parseQueryString() {
+    return ProductQueryBuilderUtil.parseQueryString(this.q);
+  }
+
+  @Benchmark
+  public SearchRequest searchRequestFactory() {
+    return new SearchRequestFactory(this.construction, this.connection).build(this.build,
+        this.connection.getRegistryIndex());
+  }
+}
@@ -0,0 +1,321 @@
+package gov.nasa.pds.api.registry.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import gov.nasa.pds.api.registry.model.Pds4ProductFactory;
+import gov.nasa.pds.api.registry.model.PdsProductBusinessObject;
+import gov.nasa.pds.api.registry.model.ProductBusinessLogic;
+import gov.nasa.pds.api.registry.model.ProductBusinessObject;
+import gov.nasa.pds.api.registry.model.WyriwygBusinessObject;
+import gov.nasa.pds.api.registry.view.ClassesSerializer;
+import gov.nasa.pds.api.registry.view.CsvErrorMessageSerializer;
+import gov.nasa.pds.api.registry.view.CsvPluralSerializer;
+import gov.nasa.pds.api.registry.view.CsvSingularSerializer;
+import gov.nasa.pds.api.registry.view.HtmlErrorMessageSerializer;
+import gov.nasa.pds.api.registry.view.JsonErrorMessageSerializer;
+import gov.nasa.pds.api.registry.view.JsonPluralSerializer;
+import gov.nasa.pds.api.registry.view.JsonProductSerializer;
+import gov.nasa.pds.api.registry.view.JsonSingularSerializer;
+import gov.nasa.pds.api.registry.view.Mappers;
+import gov.nasa.pds.api.registry.view.Pds4JsonProductSerializer;
+import gov.nasa.pds.api.registry.view.Pds4JsonProductsSerializer;
+import gov.nasa.pds.api.registry.view.Pds4XmlProductSerializer;
+import gov.nasa.pds.api.registry.view.Pds4XmlProductsSerializer;
+import gov.nasa.pds.api.registry.view.PdsProductTextHtmlSerializer;
+import gov.nasa.pds.api.registry.view.PdsProductXMLSerializer;
+import gov.nasa.pds.api.registry.view.PdsProductsTextHtmlSerializer;
+import gov.nasa.pds.api.registry.view.PdsProductsXMLSerializer;
+import gov.nasa.pds.api.registry.view.XmlErrorMessageSerializer;
+import gov.nasa.pds.model.ErrorMessage;
+import gov.nasa.pds.model.PdsProduct;
+import gov.nasa.pds.model.PdsProducts;
+import gov.nasa.pds.model.Pds4Product;
+import gov.nasa.pds.model.Pds4Products;
+import gov.nasa.pds.model.Summary;
+import gov.nasa.pds.model.WyriwygProduct;
+import gov.nasa.pds.model.WyriwygProducts;
+
+/**
+ * Every view serializer writing the response a business object built from a page of recorded
+ * hits, exactly as the controller hands it to the message converter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+  @Param({"100"})
+  public int hits;
+
+  private final List<String> fields = Arrays.asList("lidvid", "title", "product_class",
+      "pds:Time_Coordinates.pds:start_date_time", "ref_lid_target");
+  private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+  private final HttpOutputMessage message = new HttpOutputMessage() {
+    private final HttpHeaders headers = new HttpHeaders();
+
+    @Override
+    public OutputStream getBody() {
+      return SerializerBenchmark.this.body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      this.headers.clear();
+      return this.headers;
+    }
+  };
+
+  private final Mappers mappers = new Mappers();
+  private final ClassesSerializer classesSerializer = new ClassesSerializer();
+  private final CsvErrorMessageSerializer csvErrorMessageSerializer =
+      new CsvErrorMessageSerializer();
+  private final CsvPluralSerializer csvPluralSerializer = new CsvPluralSerializer(this.mappers);
+  private final CsvSingularSerializer csvSingularSerializer =
+      new CsvSingularSerializer(this.mappers);
+  private final HtmlErrorMessageSerializer htmlErrorMessageSerializer =
+      new HtmlErrorMessageSerializer();
+  private final JsonErrorMessageSerializer jsonErrorMessageSerializer =
+      new JsonErrorMessageSerializer();
+  private final JsonPluralSerializer jsonPluralSerializer = new JsonPluralSerializer(this.mappers);
+  private final JsonProductSerializer jsonProductSerializer =
+      new JsonProductSerializer(this.mappers);
+  private final JsonSingularSerializer jsonSingularSerializer =
+      new JsonSingularSerializer(this.mappers);
+  private final Pds4JsonProductSerializer pds4JsonProductSerializer =
+      new Pds4JsonProductSerializer(this.mappers);
+  private final Pds4JsonProductsSerializer pds4JsonProductsSerializer =
+      new Pds4JsonProductsSerializer(this.mappers);
+  private final Pds4XmlProductSerializer pds4XmlProductSerializer =
+      new Pds4XmlProductSerializer(this.mappers);
+  private final Pds4XmlProductsSerializer pds4XmlProductsSerializer =
+      new Pds4XmlProductsSerializer(this.mappers);
+  private final PdsProductTextHtmlSerializer pdsProductTextHtmlSerializer =
+      new PdsProductTextHtmlSerializer(this.mappers);
+  private final PdsProductXMLSerializer pdsProductXMLSerializer =
+      new PdsProductXMLSerializer(this.mappers);
+  private final PdsProductsTextHtmlSerializer pdsProductsTextHtmlSerializer =
+      new PdsProductsTextHtmlSerializer(this.mappers);
+  private final PdsProductsXMLSerializer pdsProductsXMLSerializer =
+      new PdsProductsXMLSerializer(this.mappers);
+  private final XmlErrorMessageSerializer xmlErrorMessageSerializer =
+      new XmlErrorMessageSerializer();
+
+  private PdsProduct pdsProduct;
+  private PdsProducts pdsProducts;
+  private WyriwygProduct wyriwygProduct;
+  private WyriwygProducts wyriwygProducts;
+  private Pds4Product pds4XmlProduct, pds4JsonProduct;
+  private Pds4Products pds4XmlProducts, pds4JsonProducts;
+  private ErrorMessage error;
+  private List<String> classes;
+
+  private static Summary summary(int hits) {
+    Summary summary = new Summary();
+    summary.setQ("ref_lid_target eq \"urn:nasa:pds:context:target:planet.mars\"");
+    summary.setHits(hits);
+    summary.setStart(0);
+    summary.setLimit(hits);
+    summary.setTook(12);
+    summary.setSort(new ArrayList<String>());
+    summary.setProperties(new ArrayList<String>());
+    return summary;
+  }
+
+  private Pds4Products pds4(SearchHits page, boolean isJSON) {
+    List<Pds4Product> list = new ArrayList<Pds4Product>();
+    Set<String> uniqueProperties = new TreeSet<String>();
+    Pds4Products products = new Pds4Products();
+    Summary summary = SerializerBenchmark.summary(this.hits);
+
+    for (SearchHit hit : page) {
+      Map<String, Object> fieldMap = hit.getSourceAsMap();
+      uniqueProperties.addAll(
+          ProductBusinessObject.getFilteredProperties(fieldMap, this.fields, null).keySet());
+      list.add(Pds4ProductFactory.createProduct(hit.getId(), fieldMap, isJSON));
+    }
+    summary.setProperties(new ArrayList<String>(uniqueProperties));
+    products.setData(list);
+    products.setSummary(summary);
+    return products;
+  }
+
+  @Setup
+  public void setup() {
+    SearchHits page = Fixtures.page(this.hits);
+    SearchHit one = page.getAt(2);
+    ProductBusinessLogic logic;
+
+    Fixtures.bindRequest();
+
+    logic = new PdsProductBusinessObject();
+    logic.setObjectMapper(Fixtures.MAPPER);
+    logic.setResponse(one, this.fields);
+    this.pdsProduct = (PdsProduct) logic.getResponse();
+    logic = new PdsProductBusinessObject();
+    logic.setObjectMapper(Fixtures.MAPPER);
+    logic.setResponse(page, SerializerBenchmark.summary(this.hits), this.fields);
+    this.pdsProducts = (PdsProducts) logic.getResponse();
+
+    logic = new WyriwygBusinessObject();
+    logic.setObjectMapper(Fixtures.MAPPER);
+    logic.setResponse(one, this.fields);
+    this.wyriwygProduct = (WyriwygProduct) logic.getResponse();
+    logic = new WyriwygBusinessObject();
+    logic.setObjectMapper(Fixtures.MAPPER);
+    logic.setResponse(page, SerializerBenchmark.summary(this.hits), this.fields);
+    this.wyriwygProducts = (WyriwygProducts) logic.getResponse();
+
+    this.pds4XmlProduct =
+        Pds4ProductFactory.createProduct(one.getId(), one.getSourceAsMap(), false);
+    this.pds4JsonProduct =
+        Pds4ProductFactory.createProduct(one.getId(), one.getSourceAsMap(), true);
+    this.pds4XmlProducts = this.pds4(page, false);
+    this.pds4JsonProducts = this.pds4(page, true);
+
+    this.error = new ErrorMessage();
+    this.error.setRequest("/products/urn:nasa:pds:unknown::1.0");
+    this.error.setMessage("The lidvid urn:nasa:pds:unknown::1.0 was not found");
+
+    this.classes = Arrays.asList("bundles", "collections", "documents", "observationals", "any");
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private <T> int write(AbstractHttpMessageConverter<T> converter, T response) throws IOException {
+    this.body.reset();
+    converter.write(response, null, this.message);
+    return this.body.size();
+  }
+
+  @Benchmark
+  public int classes() throws IOException {
+    return this.write(this.classesSerializer, this.classes);
+  }
+
+  @Benchmark
+  public int csvError() throws IOException {
+    return this.write(this.csvErrorMessageSerializer, this.error);
+  }
+
+  @Benchmark
+  public int csvPlural() throws IOException {
+    return this.write(this.csvPluralSerializer, this.wyriwygProducts);
+  }
+
+  @Benchmark
+  public int csvSingular() throws IOException {
+    return this.write(this.csvSingularSerializer, this.wyriwygProduct);
+  }
+
+  @Benchmark
+  public int htmlError() throws IOException {
+    return this.write(this.htmlErrorMessageSerializer, this.error);
+  }
+
+  @Benchmark
+  public int jsonError() throws IOException {
+    return this.write(this.jsonErrorMessageSerializer, this.error);
+  }
+
+  @Benchmark
+  public int kvpJsonPlural() throws IOException {
+    return this.write(this.jsonPluralSerializer, this.wyriwygProducts);
+  }
+
+  @Benchmark
+  public int kvpJsonSingular() throws IOException {
+    return this.write(this.jsonSingularSerializer, this.wyriwygProduct);
+  }
+
+  @Benchmark
+  public int jsonProduct() throws IOException {
+    this.body.reset();
+    this.jsonProductSerializer.write(this.pdsProduct, null, this.message);
+    return this.body.size();
+  }
+
+  @Benchmark
+  public int jsonProducts() throws IOException {
+    this.body.reset();
+    this.jsonProductSerializer.write(this.pdsProducts, null, this.message);
+    return this.body.size();
+  }
+
+  @Benchmark
+  public int pds4JsonProduct() throws IOException {
+    return this.write(this.pds4JsonProductSerializer, this.pds4JsonProduct);
+  }
+
+  @Benchmark
+  public int pds4JsonProducts() throws IOException {
+    return this.write(this.pds4JsonProductsSerializer, this.pds4JsonProducts);
+  }
+
+  @Benchmark
+  public int pds4XmlProduct() throws IOException {
+    return this.write(this.pds4XmlProductSerializer, this.pds4XmlProduct);
+  }
+
+  @Benchmark
+  public int pds4XmlProducts() throws IOException {
+    return this.write(this.pds4XmlProductsSerializer, this.pds4XmlProducts);
+  }
+
+  @Benchmark
+  public int htmlProduct() throws IOException {
+    return this.write(this.pdsProductTextHtmlSerializer, this.pdsProduct);
+  }
+
+  @Benchmark
+  public int htmlProducts() throws IOException {
+    return this.write(this.pdsProductsTextHtmlSerializer, this.pdsProducts);
+  }
+
+  @Benchmark
+  public int xmlProduct() throws IOException {
+    return this.write(this.pdsProductXMLSerializer, this.pdsProduct);
+  }
+
+  @Benchmark
+  public int xmlProducts() throws IOException {
+    return this.write(this.pdsProductsXMLSerializer, this.pdsProducts);
+  }
+
+  @Benchmark
+  public int xmlError() throws IOException {
+    return this.write(this.xmlErrorMessageSerializer, this.error);
+  }
+}
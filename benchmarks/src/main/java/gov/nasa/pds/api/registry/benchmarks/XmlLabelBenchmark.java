@@ -0,0 +1,106 @@
+package gov.nasa.pds.api.registry.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gov.nasa.pds.api.registry.model.BlobUtil;
+import gov.nasa.pds.api.registry.model.EncodedBlob;
+import gov.nasa.pds.api.registry.model.XmlLabelFilter;
+
+/**
+ * Preparing a pds4+xml label for embedding: removing its carriage returns and processing
+ * instructions. The former indexOf/replace loop over the decoded String is kept here as the
+ * baseline of XmlLabelFilter. The label is the recorded observational one with CRLF line ends and
+ * its body repeated until it is about the given kilobytes in size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlLabelBenchmark {
+  @Param({"4", "64", "512"})
+  public int kilobytes;
+
+  private String label, blob;
+  private byte[] bytes;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+    String recorded = BlobUtil.blobToString(((List<String>) Fixtures.source("observational")
+        .get(BlobUtil.XML_BLOB_PROPERTY)).get(0)).replace("\r", "");
+    int bodyBegin = recorded.indexOf('>', recorded.indexOf("<Product_Observational")) + 1;
+    int bodyEnd = recorded.lastIndexOf("</Product_Observational>");
+    String body = recorded.substring(bodyBegin, bodyEnd);
+    StringBuilder large = new StringBuilder(recorded.substring(0, bodyBegin));
+
+    do {
+      large.append(body);
+    } while (large.length() < this.kilobytes * 1024);
+    large.append(recorded.substring(bodyEnd));
+
+    this.label = large.toString().replace("\n", "\r\n");
+    this.bytes = this.label.getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+    try (DeflaterOutputStream deflater = new DeflaterOutputStream(deflated)) {
+      deflater.write(this.bytes);
+    }
+    this.blob = Base64.getEncoder().encodeToString(deflated.toByteArray());
+  }
+
+  /** what Pds4ProductFactory used to do with the decoded label */
+  private static String replaceLoop(String decoded_blob) {
+    int first, last;
+
+    decoded_blob = decoded_blob.replaceAll("\r", "");
+    first = decoded_blob.indexOf("<?");
+    while (0 <= first) {
+      last = decoded_blob.indexOf("?>", first + 2);
+      decoded_blob = decoded_blob.replace(decoded_blob.substring(first, last + 2), "");
+      first = decoded_blob.indexOf("<?");
+    }
+    return decoded_blob.strip();
+  }
+
+  @Benchmark
+  public byte[] stripReplaceLoop() {
+    return replaceLoop(this.label).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public void stripFilter() throws IOException {
+    XmlLabelFilter filter = new XmlLabelFilter(OutputStream.nullOutputStream());
+    filter.write(this.bytes);
+    filter.close();
+  }
+
+  @Benchmark
+  public byte[] decodeReplaceLoop() throws Exception {
+    return replaceLoop(BlobUtil.blobToString(this.blob)).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public void decodeFilter() throws IOException {
+    new EncodedBlob(this.blob, true).writeTo(OutputStream.nullOutputStream());
+  }
+}
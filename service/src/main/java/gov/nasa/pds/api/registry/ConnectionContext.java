@@ -1,5 +1,11 @@
 package gov.nasa.pds.api.registry;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 
 public interface ConnectionContext {
@@ -11,4 +17,15 @@ public interface ConnectionContext {
 
   public int getTimeOutSeconds();
   // public void close();
+
+  /**
+   * Non-blocking search. The future is completed on an IO thread of the OpenSearch client so
+   * whatever is chained to it must not block.
+   */
+  public default CompletableFuture<SearchResponse> searchAsync(SearchRequest request) {
+    CompletableFuture<SearchResponse> future = new CompletableFuture<SearchResponse>();
+    this.getRestHighLevelClient().searchAsync(request, RequestOptions.DEFAULT,
+        ActionListener.wrap(future::complete, future::completeExceptionally));
+    return future;
+  }
 }
@@ -10,4 +10,7 @@ public interface RequestBuildContext {
   public List<String> getFields(); // must not return null but an empty list
 
   public GroupConstraint getPresetCriteria(); // must not return null but an empty list
+
+  public List<String> getSort(); // asc(field) or desc(field), must not return null but an empty
+                                 // list
 }
@@ -1,6 +1,9 @@
 package gov.nasa.pds.api.registry;
 
+import java.net.URL;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import gov.nasa.pds.api.registry.model.ProductVersionSelector;
 
@@ -22,4 +25,10 @@ public interface UserContext extends LidvidsContext {
   public List<String> getSort();
 
   public String getVersion();
+
+  /** @return the URL of the API the links of the response are built from */
+  public URL getBaseURL();
+
+  /** @return where QuickSearch keeps its answers for the life of the request */
+  public Map<List<Object>, Optional<Object>> getMemo();
 }
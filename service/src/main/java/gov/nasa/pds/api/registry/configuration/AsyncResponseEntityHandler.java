@@ -0,0 +1,46 @@
+package gov.nasa.pds.api.registry.configuration;
+
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * The generated API interfaces all return ResponseEntity&lt;Object&gt; so an asynchronous response
+ * is handed over as a ResponseEntity whose body is a CompletionStage of the real ResponseEntity.
+ * Being an async handler, Spring MVC picks this over the usual ResponseEntity processing when the
+ * value is such a response. The stage is turned into a DeferredResult so that the real response is
+ * written through the normal message converters once it completes.
+ */
+public class AsyncResponseEntityHandler implements AsyncHandlerMethodReturnValueHandler {
+  @Override
+  public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+    return returnValue instanceof ResponseEntity
+        && ((ResponseEntity<?>) returnValue).getBody() instanceof CompletionStage;
+  }
+
+  @Override
+  public boolean supportsReturnType(MethodParameter returnType) {
+    return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+  }
+
+  @Override
+  public void handleReturnValue(Object returnValue, MethodParameter returnType,
+      ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+    CompletionStage<?> stage = (CompletionStage<?>) ((ResponseEntity<?>) returnValue).getBody();
+    DeferredResult<Object> result = new DeferredResult<Object>();
+
+    stage.whenComplete((value, error) -> {
+      if (error != null)
+        result.setErrorResult(error);
+      else
+        result.setResult(value);
+    });
+    WebAsyncUtils.getAsyncManager(webRequest).startDeferredResultProcessing(result, mavContainer);
+  }
+}
@@ -0,0 +1,32 @@
+package gov.nasa.pds.api.registry.configuration;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import gov.nasa.pds.api.registry.search.RequestMetrics;
+
+/**
+ * Marks the moment a response body is handed to the message converters so that RequestMetrics can
+ * tell serialization apart from the rest of the request.
+ */
+@ControllerAdvice
+public class RequestMetricsAdvice implements ResponseBodyAdvice<Object> {
+  @Override
+  public boolean supports(MethodParameter returnType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType,
+      MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request, ServerHttpResponse response) {
+    RequestMetrics.serializing();
+    return body;
+  }
+}
@@ -0,0 +1,28 @@
+package gov.nasa.pds.api.registry.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import gov.nasa.pds.api.registry.search.RequestMetrics;
+
+/**
+ * Opens the RequestMetrics tally of a request and reports it once the response is written. For an
+ * asynchronous request completion is only seen by the dispatch that writes the response, the first
+ * dispatch merely starts it.
+ */
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    RequestMetrics.begin();
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    RequestMetrics.end();
+  }
+}
@@ -3,14 +3,18 @@ package gov.nasa.pds.api.registry.configuration;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -21,6 +25,9 @@ import gov.nasa.pds.api.registry.view.JsonErrorMessageSerializer;
 import gov.nasa.pds.api.registry.view.JsonPluralSerializer;
 import gov.nasa.pds.api.registry.view.JsonProductSerializer;
 import gov.nasa.pds.api.registry.view.JsonSingularSerializer;
+import gov.nasa.pds.api.registry.view.Mappers;
+import gov.nasa.pds.api.registry.view.NdJsonPluralSerializer;
+import gov.nasa.pds.api.registry.view.NdJsonSingularSerializer;
 import gov.nasa.pds.api.registry.view.Pds4JsonProductSerializer;
 import gov.nasa.pds.api.registry.view.Pds4JsonProductsSerializer;
 import gov.nasa.pds.api.registry.view.Pds4XmlProductSerializer;
@@ -36,6 +43,12 @@ import gov.nasa.pds.api.registry.view.XmlErrorMessageSerializer;
 public class WebMVCConfig implements WebMvcConfigurer {
   private static final Logger log = LoggerFactory.getLogger(WebMVCConfig.class);
 
+  /** the mappers every serializer shares rather than building its own for each response */
+  @Bean
+  public Mappers mappers() {
+    return new Mappers();
+  }
+
   @Override
   public void addResourceHandlers(ResourceHandlerRegistry registry) {
     registry.addResourceHandler("/webjars/**")
@@ -65,6 +78,16 @@ public class WebMVCConfig implements WebMvcConfigurer {
     configurer.defaultContentType(MediaType.APPLICATION_JSON);
   }
 
+  @Override
+  public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+    handlers.add(new AsyncResponseEntityHandler());
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new RequestMetricsInterceptor()).excludePathPatterns("/actuator/**");
+  }
+
   @Override
   public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
     WebMVCConfig.log.info("Number of converters available " + Integer.toString(converters.size()));
@@ -72,33 +95,40 @@ public class WebMVCConfig implements WebMvcConfigurer {
     // basic converter for /api-docs end-point, new with springdoc 2
     converters.add(new ByteArrayHttpMessageConverter());
 
+    // cached responses kept outside of the heap
+    converters.add(new ResourceHttpMessageConverter());
+
     // basic converter for swagger-ui resources
     converters.add(new StringHttpMessageConverter());
 
     // csv converters
     converters.add(new CsvErrorMessageSerializer());
-    converters.add(new CsvPluralSerializer());
-    converters.add(new CsvSingularSerializer());
+    converters.add(new CsvPluralSerializer(this.mappers()));
+    converters.add(new CsvSingularSerializer(this.mappers()));
 
     // json+kvp converters
-    converters.add(new JsonPluralSerializer());
-    converters.add(new JsonSingularSerializer());
+    converters.add(new JsonPluralSerializer(this.mappers()));
+    converters.add(new JsonSingularSerializer(this.mappers()));
 
     // json+pds4 converters
-    converters.add(new Pds4JsonProductSerializer());
-    converters.add(new Pds4JsonProductsSerializer());
+    converters.add(new Pds4JsonProductSerializer(this.mappers()));
+    converters.add(new Pds4JsonProductsSerializer(this.mappers()));
 
     // xml+pds4 converters
-    converters.add(new Pds4XmlProductSerializer());
-    converters.add(new Pds4XmlProductsSerializer());
+    converters.add(new Pds4XmlProductSerializer(this.mappers()));
+    converters.add(new Pds4XmlProductsSerializer(this.mappers()));
+
+    // x-ndjson converters
+    converters.add(new NdJsonPluralSerializer(this.mappers()));
+    converters.add(new NdJsonSingularSerializer(this.mappers()));
 
     // default xml converters
-    converters.add(new PdsProductXMLSerializer());
-    converters.add(new PdsProductsXMLSerializer());
+    converters.add(new PdsProductXMLSerializer(this.mappers()));
+    converters.add(new PdsProductsXMLSerializer(this.mappers()));
     converters.add(new XmlErrorMessageSerializer());
 
     // default json converters
-    converters.add(new JsonProductSerializer());
+    converters.add(new JsonProductSerializer(this.mappers()));
     converters.add(new JsonErrorMessageSerializer());
   }
 }
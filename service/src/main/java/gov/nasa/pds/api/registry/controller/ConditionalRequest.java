@@ -0,0 +1,178 @@
+package gov.nasa.pds.api.registry.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.google.common.hash.Hashing;
+
+import gov.nasa.pds.api.registry.ControlContext;
+import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
+import gov.nasa.pds.api.registry.model.Pds4ProductFactory;
+import gov.nasa.pds.api.registry.model.RequestAndResponseContext;
+import gov.nasa.pds.api.registry.model.identifiers.PdsLidVid;
+import gov.nasa.pds.api.registry.model.identifiers.PdsProductIdentifier;
+import gov.nasa.pds.api.registry.search.QuickSearch;
+import gov.nasa.pds.api.registry.search.VersionIndex;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The validators of a product response and the answer to the conditional requests that carry them.
+ *
+ * The entity tag is a hash of what the response is made of, the request URI, its Accept header and
+ * the lidvid the identifier resolved to, followed by ops:Harvest_Info/ops:harvest_date_time of the
+ * product in base 36 and a hash of its archive status, which changes without it being harvested
+ * again. The harvest time is the Last-Modified.
+ *
+ * A conditional request is answered after looking up the harvest time and the archive status, in
+ * one search, the lidvid of a lid having already been resolved. Otherwise nothing is searched for
+ * the validators: they come with the product fetched for the response, or with the response
+ * cached.
+ *
+ * Membership lists are not conditional: any harvest, or any change of archive status, may change
+ * them and nothing tells when the latter happened short of searching the whole registry.
+ */
+class ConditionalRequest {
+  final private String hash;
+  final private String lidvid;
+  final private boolean fixed;
+  final private String ifNoneMatch;
+  final private long ifModifiedSince;
+  final private long maxAge;
+  private String version = null; // what follows the hash in the tag, once known
+  private long modified = -1L;
+
+  ConditionalRequest(HttpServletRequest request, URIParameters parameters, long maxAge,
+      long lidvidMaxAge) {
+    String uri = request.getRequestURI()
+        + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+
+    this.lidvid = parameters.getLidVid();
+    this.fixed = PdsProductIdentifier.fromString(parameters.getIdentifier()) instanceof PdsLidVid;
+    this.hash = Hashing.murmur3_128()
+        .hashString(uri + "\n" + parameters.getAccept() + "\n" + this.lidvid,
+            StandardCharsets.UTF_8)
+        .toString();
+    this.ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    this.ifModifiedSince = this.ifNoneMatch == null ? header(request) : -1L;
+    this.maxAge = this.fixed ? lidvidMaxAge : maxAge;
+  }
+
+  private static long header(HttpServletRequest request) {
+    try {
+      return request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+    } catch (IllegalArgumentException e) {
+      return -1L;
+    }
+  }
+
+  private static String first(Object value) {
+    if (value instanceof List)
+      return ((List<?>) value).isEmpty() ? null : String.valueOf(((List<?>) value).get(0));
+    return value == null ? null : String.valueOf(value);
+  }
+
+  /** Set the version and the modification time of a product from its VALIDATORS. */
+  private void product(Map<String, ?> validators) {
+    String harvested = first(validators.get(VersionIndex.HARVEST_TIME));
+    String status = first(validators.get(Pds4ProductFactory.FLD_TRACK_META_ARCHIVE_STATUS));
+
+    try {
+      if (harvested != null)
+        this.modified = Instant.parse(harvested).toEpochMilli();
+    } catch (DateTimeParseException e) {
+      // leave it unknown, the tag still tells the product and its representation apart
+    }
+    this.version = Long.toString(this.modified, 36) + "-" + Hashing.murmur3_32()
+        .hashString(String.valueOf(status), StandardCharsets.UTF_8).toString();
+  }
+
+  /** Look up what the validators are made of, which searches. */
+  private void lookup(ControlContext control, URIParameters parameters)
+      throws IOException, LidVidNotFoundException {
+    if (this.version == null)
+      this.product(QuickSearch.getFirstValues(control.getConnection(), parameters, false,
+          this.lidvid, RequestAndResponseContext.VALIDATORS));
+  }
+
+  private String etag() {
+    return "\"" + this.hash + "-" + this.version + "\"";
+  }
+
+  private static String opaque(String tag) {
+    return tag.startsWith("W/") ? tag.substring(2) : tag;
+  }
+
+  /** @return the 304 response when the client already has the representation, null otherwise */
+  ResponseEntity<Object> notModified(ControlContext control, URIParameters parameters)
+      throws IOException, LidVidNotFoundException {
+    String matched = null;
+
+    if (this.ifNoneMatch != null) {
+      this.lookup(control, parameters);
+      for (String tag : this.ifNoneMatch.split(",")) {
+        tag = opaque(tag.trim());
+        if (tag.equals("*") || tag.equals(opaque(this.etag()))) {
+          matched = this.etag();
+          break;
+        }
+      }
+    } else if (0 <= this.ifModifiedSince) {
+      this.lookup(control, parameters);
+      if (0 <= this.modified && this.modified / 1000L <= this.ifModifiedSince / 1000L)
+        matched = this.etag();
+    }
+
+    if (matched == null)
+      return null;
+
+    HttpHeaders headers = this.headers();
+    headers.setETag(matched);
+    if (0 <= this.modified)
+      headers.setLastModified(this.modified);
+    return new ResponseEntity<Object>(headers, HttpStatus.NOT_MODIFIED);
+  }
+
+  private HttpHeaders headers() {
+    HttpHeaders headers = new HttpHeaders();
+
+    headers.setCacheControl(CacheControl.maxAge(this.maxAge, TimeUnit.SECONDS).cachePublic());
+    headers.setVary(List.of(HttpHeaders.ACCEPT));
+    return headers;
+  }
+
+  /**
+   * @return response with the validators when it is a success, as it is otherwise; without an
+   *         entity tag nor Last-Modified when the product it was made of is not known
+   */
+  ResponseEntity<Object> validated(ControlContext control, URIParameters parameters,
+      ResponseEntity<Object> response) {
+    if (!response.getStatusCode().is2xxSuccessful())
+      return response;
+
+    if (this.version == null) {
+      Map<String, Object> validators = QuickSearch.recall(control.getConnection(), parameters,
+          this.lidvid, RequestAndResponseContext.VALIDATORS);
+      if (validators != null)
+        this.product(validators);
+    }
+
+    HttpHeaders headers = this.headers();
+    headers.addAll(response.getHeaders());
+    if (this.version != null) {
+      headers.setETag(this.etag());
+      if (0 <= this.modified)
+        headers.setLastModified(this.modified);
+    }
+    return new ResponseEntity<Object>(response.getBody(), headers, response.getStatusCode());
+  }
+}
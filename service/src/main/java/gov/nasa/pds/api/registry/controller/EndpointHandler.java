@@ -1,6 +1,9 @@
 package gov.nasa.pds.api.registry.controller;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.springframework.http.ResponseEntity;
 
@@ -11,9 +14,51 @@ import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
 import gov.nasa.pds.api.registry.exceptions.MembershipException;
 import gov.nasa.pds.api.registry.exceptions.NothingFoundException;
 import gov.nasa.pds.api.registry.exceptions.UnknownGroupNameException;
+import io.micrometer.core.instrument.Tags;
 
 interface EndpointHandler {
+  /**
+   * @return the tags of this handler in the registry.handler timer
+   */
+  public default Tags tags() {
+    return Tags.of("handler", this.getClass().getSimpleName(), "traversal", "none");
+  }
+
+  /**
+   * @return whether the response is the product named by content, so that it can carry the
+   *         validators of ConditionalRequest
+   */
+  public default boolean conditional(UserContext content) {
+    return false;
+  }
+
+  /**
+   * @return whether the hits can be sorted with the sort parameter, which is not the case when the
+   *         page is picked before the products are searched for
+   */
+  public default boolean sorts() {
+    return true;
+  }
+
   public ResponseEntity<Object> transmute(ControlContext control, UserContext content)
       throws ApplicationTypeException, IOException, LidVidNotFoundException, MembershipException,
       NothingFoundException, UnknownGroupNameException;
+
+  /**
+   * Asynchronous form of transmute(). Unless a handler has a non-blocking pipeline, the blocking
+   * transmute() is run on the given executor so that the servlet thread is released. Nothing of the
+   * HTTP request is bound to that thread: whatever the response needs of it is in content. Failures
+   * complete the future exceptionally with the original exception as the cause.
+   */
+  public default CompletableFuture<ResponseEntity<Object>> transmuteAsync(ControlContext control,
+      UserContext content, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return this.transmute(control, content);
+      } catch (ApplicationTypeException | IOException | LidVidNotFoundException
+          | MembershipException | NothingFoundException | UnknownGroupNameException e) {
+        throw new CompletionException(e);
+      }
+    }, executor);
+  }
 }
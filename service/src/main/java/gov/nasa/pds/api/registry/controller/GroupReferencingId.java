@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import gov.nasa.pds.api.registry.ControlContext;
+import gov.nasa.pds.api.registry.ReferencingLogic;
 import gov.nasa.pds.api.registry.UserContext;
 import gov.nasa.pds.api.registry.exceptions.ApplicationTypeException;
 import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
@@ -13,14 +14,23 @@ import gov.nasa.pds.api.registry.exceptions.NothingFoundException;
 import gov.nasa.pds.api.registry.exceptions.UnknownGroupNameException;
 import gov.nasa.pds.api.registry.model.ReferencingLogicTransmuter;
 import gov.nasa.pds.api.registry.model.RequestAndResponseContext;
+import gov.nasa.pds.api.registry.search.RequestMetrics;
 
 class GroupReferencingId implements EndpointHandler {
   @Override
   public ResponseEntity<Object> transmute(ControlContext control, UserContext content)
       throws ApplicationTypeException, IOException, LidVidNotFoundException, NothingFoundException,
       UnknownGroupNameException {
-    RequestAndResponseContext context = ReferencingLogicTransmuter
-        .getBySwaggerGroup(content.getGroup()).impl().find(control, content);
+    ReferencingLogic logic =
+        ReferencingLogicTransmuter.getBySwaggerGroup(content.getGroup()).impl();
+    long begin = System.nanoTime();
+    RequestAndResponseContext context = logic.find(control, content);
+    RequestMetrics.traversal(logic, "find", false, System.nanoTime() - begin);
     return new ResponseEntity<Object>(context.getResponse(), HttpStatus.OK);
   }
+
+  @Override
+  public boolean sorts() {
+    return false; // the page of lidvids is walked out of the references before any sort
+  }
 }
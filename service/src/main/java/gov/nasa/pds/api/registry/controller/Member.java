@@ -16,6 +16,8 @@ import gov.nasa.pds.api.registry.exceptions.UnknownGroupNameException;
 import gov.nasa.pds.api.registry.model.ReferencingLogicTransmuter;
 import gov.nasa.pds.api.registry.model.RequestAndResponseContext;
 import gov.nasa.pds.api.registry.search.QuickSearch;
+import gov.nasa.pds.api.registry.search.RequestMetrics;
+import io.micrometer.core.instrument.Tags;
 
 class Member implements EndpointHandler {
   final private boolean offspring, twoSteps;
@@ -34,13 +36,26 @@ class Member implements EndpointHandler {
     if (0 < content.getGroup().length())
       transmuter = ReferencingLogicTransmuter.getBySwaggerGroup(content.getGroup()).impl();
     else
-      transmuter = ReferencingLogicTransmuter.getByProductClass(QuickSearch
-          .getValue(control.getConnection(), false, content.getLidVid(), "product_class")).impl();
+      transmuter = ReferencingLogicTransmuter.getByProductClass(QuickSearch.getValue(
+          control.getConnection(), content, false, content.getLidVid(), "product_class")).impl();
 
+    long begin = System.nanoTime();
     RequestAndResponseContext context =
         this.offspring ? transmuter.member(control, content, this.twoSteps)
             : transmuter.memberOf(control, content, this.twoSteps);
+    RequestMetrics.traversal(transmuter, this.offspring ? "member" : "memberOf", this.twoSteps,
+        System.nanoTime() - begin);
     return new ResponseEntity<Object>(context.getResponse(), HttpStatus.OK);
   }
 
+  @Override
+  public Tags tags() {
+    String step = this.offspring ? "members" : "member-of";
+    return Tags.of("handler", "Member", "traversal", this.twoSteps ? step + "/" + step : step);
+  }
+
+  @Override
+  public boolean sorts() {
+    return false; // the page of lidvids is walked out of the references before any sort
+  }
 }
@@ -0,0 +1,356 @@
+package gov.nasa.pds.api.registry.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.UserContext;
+import gov.nasa.pds.api.registry.model.RequestAndResponseContext;
+import gov.nasa.pds.api.registry.model.identifiers.PdsLidVid;
+import gov.nasa.pds.api.registry.model.identifiers.PdsProductIdentifier;
+import gov.nasa.pds.api.registry.search.QuickSearch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * The serialized singular responses of the products asked for by lidvid, which never change once
+ * harvested, so that the popular ones are neither searched for nor serialized again.
+ *
+ * An entry is keyed by the lidvid, the group, the fields, the media type and the base URL the links
+ * of the response are built from. Only requests whose Accept header names one concrete media type
+ * are cached, since that is the type Spring would pick; the bytes are written by the first
+ * message converter that can write the response in that type, as Spring would have, and are sent
+ * as they are with the Content-Type that converter gave.
+ *
+ * The cache holds at most responseCache.bytes bytes, evicting the least recently used responses
+ * first, and no response larger than responseCache.maxEntryBytes: one that gets larger while it is
+ * serialized is left to Spring to stream as it would have without the cache. Responses of at least
+ * responseCache.offHeapMinBytes bytes, like large pds4+xml labels, are kept in direct buffers
+ * outside of the Java heap when it is larger than 0 and are streamed from there.
+ *
+ * A product harvested again under the same lidvid, or whose archive status changed, is not seen
+ * by the cache, which is why it is disabled by default, responseCache.bytes being 0. The
+ * responsecache actuator endpoint tells how well it does on a GET and drops the responses of the
+ * products of a LID, or all of them, on a DELETE. Like productrefs it is not exposed over the web
+ * by default, being in management.endpoints.web.exposure.exclude, since anyone could empty the
+ * cache with it; an operator takes it out of that list only with the actuator on a
+ * management.server.port they alone reach, or behind a proxy that authenticates them.
+ */
+@Component
+@Endpoint(id = "responsecache")
+class ResponseCache {
+  private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+  private static final int OVERHEAD = 256; // key, entry and headers, roughly
+
+  @Value("${responseCache.bytes:0}")
+  private long propBytes;
+  @Value("${responseCache.maxEntryBytes:1048576}")
+  private int propMaxEntryBytes;
+  @Value("${responseCache.offHeapMinBytes:0}")
+  private int propOffHeapMinBytes;
+  @Autowired
+  private ObjectProvider<RequestMappingHandlerAdapter> adapter;
+  @Autowired(required = false)
+  private MeterRegistry registry;
+
+  private static Cache<List<Object>, Response> cache = null;
+  private static int maxEntryBytes = 0, offHeapMinBytes = 0;
+  private static ObjectProvider<RequestMappingHandlerAdapter> converters = null;
+  private static final AtomicLong bytes = new AtomicLong();
+
+  /** the bytes of one response, on the heap or not, and what its validators are made of */
+  private static final class Response {
+    final private MediaType type;
+    final private byte[] heap;
+    final private ByteBuffer direct;
+    final private Map<String, Object> validators;
+
+    Response(MediaType type, byte[] body, Map<String, Object> validators) {
+      this.type = type;
+      this.validators = validators;
+      if (0 < offHeapMinBytes && offHeapMinBytes <= body.length) {
+        this.heap = null;
+        this.direct = ByteBuffer.allocateDirect(body.length).put(body).flip();
+      } else {
+        this.heap = body;
+        this.direct = null;
+      }
+    }
+
+    int size() {
+      return this.heap != null ? this.heap.length : this.direct.capacity();
+    }
+
+    /** @return the bytes as they are on the heap, a resource reading them in place otherwise */
+    Object body() {
+      return this.heap != null ? this.heap : new Direct(this.direct);
+    }
+
+    ResponseEntity<Object> entity() {
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(this.type);
+      return new ResponseEntity<Object>(this.body(), headers, HttpStatus.OK);
+    }
+  }
+
+  /** a direct buffer read without copying it onto the heap, each reader with its own position */
+  private static final class Direct extends AbstractResource {
+    final private ByteBuffer buffer;
+
+    Direct(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public String getDescription() {
+      return "cached response of " + this.buffer.capacity() + " bytes";
+    }
+
+    @Override
+    public long contentLength() {
+      return this.buffer.capacity();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      ByteBuffer buffer = this.buffer.duplicate();
+
+      return new InputStream() {
+        @Override
+        public int read() {
+          return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          if (!buffer.hasRemaining())
+            return len == 0 ? 0 : -1;
+          len = Math.min(len, buffer.remaining());
+          buffer.get(b, off, len);
+          return len;
+        }
+
+        @Override
+        public int available() {
+          return buffer.remaining();
+        }
+      };
+    }
+  }
+
+  /** what a converter writes the response into, until it is larger than maxEntryBytes */
+  private static final class Output implements HttpOutputMessage {
+    final private HttpHeaders headers = new HttpHeaders();
+    final private ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private boolean over = false;
+    final private OutputStream capped = new OutputStream() {
+      private void check(int len) throws IOException {
+        if (maxEntryBytes < Output.this.body.size() + len) {
+          Output.this.over = true;
+          throw new IOException("The response is larger than " + maxEntryBytes + " bytes");
+        }
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+        this.check(1);
+        Output.this.body.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        this.check(len);
+        Output.this.body.write(b, off, len);
+      }
+    };
+
+    @Override
+    public OutputStream getBody() {
+      return this.capped;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return this.headers;
+    }
+  }
+
+  @PostConstruct
+  public void init() {
+    if (0 < this.propBytes) {
+      cache = CacheBuilder.newBuilder().maximumWeight(this.propBytes)
+          .weigher((List<Object> key, Response response) -> response.size() + OVERHEAD)
+          .<List<Object>, Response>removalListener(
+              (removal) -> bytes.addAndGet(-removal.getValue().size()))
+          .recordStats().build();
+      maxEntryBytes = this.propMaxEntryBytes;
+      offHeapMinBytes = this.propOffHeapMinBytes;
+      converters = this.adapter;
+      if (this.registry != null) {
+        GuavaCacheMetrics.monitor(this.registry, cache, "registry.responses");
+        Gauge.builder("registry.responses.bytes", bytes, AtomicLong::get)
+            .description("bytes of the cached responses").register(this.registry);
+      }
+      log.info("Response cache holds " + this.propBytes + " bytes in responses of at most "
+          + this.propMaxEntryBytes + " bytes");
+    }
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    Map<String, Object> status = new HashMap<String, Object>();
+    CacheStats stats = cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+
+    status.put("enabled", cache != null);
+    status.put("responses", cache == null ? 0L : cache.size());
+    status.put("bytes", bytes.get());
+    status.put("hits", stats.hitCount());
+    status.put("misses", stats.missCount());
+    status.put("evictions", stats.evictionCount());
+    return status;
+  }
+
+  /** Drop the responses of every version of lid. */
+  @DeleteOperation
+  public Map<String, Object> purge(@Selector String lid) {
+    Map<String, Object> purged = new HashMap<String, Object>();
+    String prefix = lid + "::";
+    int count = 0;
+
+    if (cache != null)
+      for (List<Object> key : cache.asMap().keySet())
+        if (((String) key.get(0)).startsWith(prefix) && cache.asMap().remove(key) != null)
+          count++;
+    log.info("Dropped " + count + " cached responses of " + lid);
+    purged.put("lid", lid);
+    purged.put("purged", count);
+    return purged;
+  }
+
+  /** Drop every response. */
+  @DeleteOperation
+  public Map<String, Object> purgeAll() {
+    Map<String, Object> purged = new HashMap<String, Object>();
+    long count = cache == null ? 0L : cache.size();
+
+    if (cache != null)
+      cache.invalidateAll();
+    log.info("Dropped every cached response");
+    purged.put("purged", count);
+    return purged;
+  }
+
+  private static MediaType type(String accept) {
+    try {
+      List<MediaType> types = accept == null ? List.of() : MediaType.parseMediaTypes(accept);
+      return types.size() == 1 && types.get(0).isConcrete() ? types.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /** @return the cache key of content, null when its response is not cached */
+  private static List<Object> key(UserContext content) {
+    MediaType type = cache == null ? null : type(content.getAccept());
+
+    if (type == null || !content.getSingletonResultExpected()
+        || !(PdsProductIdentifier.fromString(content.getIdentifier()) instanceof PdsLidVid))
+      return null;
+
+    return Arrays.asList(content.getLidVid(), content.getGroup(), content.getFields(), type,
+        String.valueOf(content.getBaseURL()));
+  }
+
+  /** @return whether the response to content may be found in, or put in, the cache */
+  static boolean caches(UserContext content) {
+    return key(content) != null;
+  }
+
+  /**
+   * @return the cached response to content, null when there is none; what its validators are made
+   *         of is memoized in content as if the product had been fetched
+   */
+  static ResponseEntity<Object> get(ConnectionContext connection, UserContext content) {
+    List<Object> key = key(content);
+    Response response = key == null ? null : cache.getIfPresent(key);
+
+    if (response == null)
+      return null;
+    if (response.validators != null)
+      QuickSearch.remember(connection, content, content.getLidVid(), response.validators);
+    return response.entity();
+  }
+
+  /**
+   * Serialize response, keep it when content may be cached and it is not too large. The
+   * serialization stops as soon as it is, past which it is left to Spring.
+   *
+   * @return the serialized response, or response as it is when it is not cached
+   */
+  @SuppressWarnings("unchecked")
+  static ResponseEntity<Object> put(ConnectionContext connection, UserContext content,
+      ResponseEntity<Object> response) throws IOException {
+    List<Object> key = key(content);
+
+    if (key == null || response.getBody() == null)
+      return response;
+
+    MediaType type = (MediaType) key.get(3);
+    for (HttpMessageConverter<?> converter : converters.getObject().getMessageConverters()) {
+      if (converter.canWrite(response.getBody().getClass(), type)) {
+        Output output = new Output();
+        try {
+          ((HttpMessageConverter<Object>) converter).write(response.getBody(), type, output);
+        } catch (IOException | RuntimeException e) {
+          // a converter may wrap what the capped stream threw
+          if (output.over)
+            return response;
+          throw e;
+        }
+
+        Response serialized = new Response(
+            output.getHeaders().getContentType() == null ? type
+                : output.getHeaders().getContentType(),
+            output.body.toByteArray(), QuickSearch.recall(connection, content,
+                content.getLidVid(), RequestAndResponseContext.VALIDATORS));
+        bytes.addAndGet(serialized.size());
+        cache.put(key, serialized);
+        return serialized.entity();
+      }
+    }
+    return response;
+  }
+}
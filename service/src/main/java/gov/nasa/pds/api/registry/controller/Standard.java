@@ -1,6 +1,9 @@
 package gov.nasa.pds.api.registry.controller;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,13 +23,55 @@ class Standard implements EndpointHandler {
   public ResponseEntity<Object> transmute(ControlContext control, UserContext content)
       throws ApplicationTypeException, IOException, LidVidNotFoundException, NothingFoundException,
       UnknownGroupNameException {
+    ResponseEntity<Object> cached = ResponseCache.get(control.getConnection(), content);
+    if (cached != null)
+      return cached;
+
     RequestAndResponseContext context =
         RequestAndResponseContext.buildRequestAndResponseContext(control, content,
             ReferencingLogicTransmuter.getBySwaggerGroup(content.getGroup()).impl().constraints());
     context.setResponse(control.getConnection().getRestHighLevelClient(),
         new SearchRequestFactory(context, control.getConnection()).build(context,
             control.getConnection().getRegistryIndex()));
-    return new ResponseEntity<Object>(context.getResponse(), HttpStatus.OK);
+    return ResponseCache.put(control.getConnection(), content,
+        new ResponseEntity<Object>(context.getResponse(), HttpStatus.OK));
+  }
+
+  @Override
+  public boolean conditional(UserContext content) {
+    return content.getSingletonResultExpected() && !content.getLidVid().isEmpty();
   }
 
+  @Override
+  public CompletableFuture<ResponseEntity<Object>> transmuteAsync(ControlContext control,
+      UserContext content, Executor executor) {
+    RequestAndResponseContext context;
+
+    // the response is serialized on the executor rather than on an IO thread of the client
+    if (ResponseCache.caches(content)) {
+      ResponseEntity<Object> cached = ResponseCache.get(control.getConnection(), content);
+      return cached != null ? CompletableFuture.completedFuture(cached)
+          : EndpointHandler.super.transmuteAsync(control, content, executor);
+    }
+
+    try {
+      context = RequestAndResponseContext.buildRequestAndResponseContext(control, content,
+          ReferencingLogicTransmuter.getBySwaggerGroup(content.getGroup()).impl().constraints());
+    } catch (ApplicationTypeException | IOException | LidVidNotFoundException
+        | UnknownGroupNameException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return context
+        .setResponseAsync(control.getConnection(),
+            new SearchRequestFactory(context, control.getConnection()).build(context,
+                control.getConnection().getRegistryIndex()),
+            executor)
+        .thenApply((nothing) -> {
+          try {
+            return new ResponseEntity<Object>(context.getResponse(), HttpStatus.OK);
+          } catch (NothingFoundException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
 }
@@ -25,6 +25,15 @@ abstract class SwaggerJavaProductsTransmuter extends SwaggerJavaClassesTransmute
     return super.classList("any", fields, keywords, limit, q, sort, start);
   }
 
+  @Override
+  public ResponseEntity<Object> productExport(@Valid List<String> fields,
+      @Valid List<String> keywords, @Valid String q, @Valid List<String> sort) {
+    return this.processs(new Export(),
+        this.uriParametersBuilder.setAcceptable(List.of("text/csv", "application/csv"))
+            .setGroup("any").setFields(fields).setKeywords(keywords).setQuery(q).setSort(sort)
+            .setStart(0).build());
+  }
+
   @Override
   public ResponseEntity<Object> productMemberOf(String identifier, @Valid List<String> fields,
       @Min(0) @Valid Integer limit, @Valid List<String> sort, @Min(0) @Valid Integer start) {
@@ -1,7 +1,15 @@
 package gov.nasa.pds.api.registry.controller;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.antlr.v4.runtime.NoViableAltException;
@@ -9,6 +17,7 @@ import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -25,9 +34,13 @@ import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
 import gov.nasa.pds.api.registry.exceptions.MembershipException;
 import gov.nasa.pds.api.registry.exceptions.NothingFoundException;
 import gov.nasa.pds.api.registry.exceptions.UnknownGroupNameException;
+import gov.nasa.pds.api.registry.exceptions.UnsupportedSearchProperty;
 import gov.nasa.pds.api.registry.model.ErrorMessageFactory;
 import gov.nasa.pds.model.ErrorMessage;
 import gov.nasa.pds.api.registry.model.identifiers.LidVidUtils;
+import gov.nasa.pds.api.registry.search.RequestMetrics;
+import gov.nasa.pds.api.registry.search.SortUtil;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Controller
 public class SwaggerJavaTransmuter extends SwaggerJavaDeprecatedTransmuter
@@ -43,6 +56,21 @@ public class SwaggerJavaTransmuter extends SwaggerJavaDeprecatedTransmuter
   @Autowired
   ConnectionContext connection;
 
+  @Autowired
+  private HttpServletRequest request;
+
+  @Value("${registry.async.enabled:false}")
+  private boolean asyncEnabled;
+  @Value("${registry.async.threads:32}")
+  private int asyncThreads;
+  private ExecutorService executor = null;
+  @Value("${conditional.enabled:true}")
+  private boolean conditionalEnabled;
+  @Value("${conditional.maxAgeSeconds:60}")
+  private long maxAge;
+  @Value("${conditional.lidvidMaxAgeSeconds:86400}")
+  private long lidvidMaxAge;
+
   @org.springframework.beans.factory.annotation.Autowired
   public SwaggerJavaTransmuter(ObjectMapper objectMapper) {
     this.objectMapper = objectMapper;
@@ -59,44 +87,135 @@ public class SwaggerJavaTransmuter extends SwaggerJavaDeprecatedTransmuter
     return this.objectMapper;
   }
 
-  protected ResponseEntity<Object> processs(EndpointHandler handler, URIParameters parameters) {
-    long begin = System.currentTimeMillis();
-    try {
-      parameters.setProductIdentifier(this);
-      if (parameters.getVerifyClassAndId())
-        LidVidUtils.verify(this, parameters);
-      return handler.transmute(this, parameters);
-    } catch (ApplicationTypeException e) {
-      log.error("Application type not implemented", e);
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e), HttpStatus.NOT_ACCEPTABLE);
+  @PostConstruct
+  public void init() {
+    if (this.asyncEnabled) {
+      AtomicInteger count = new AtomicInteger();
+      this.executor = Executors.newFixedThreadPool(this.asyncThreads, (runnable) -> {
+        Thread thread = new Thread(runnable, "registry-async-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      log.info("Requests are processed asynchronously with " + this.asyncThreads
+          + " threads for the blocking handlers");
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (this.executor != null)
+      this.executor.shutdownNow();
+  }
 
-    } catch (IOException e) {
+  private ResponseEntity<Object> failure(Throwable e, URIParameters parameters) {
+    String request = parameters.getRequestURL();
+
+    if (e instanceof CompletionException && e.getCause() != null)
+      e = e.getCause();
+    if (e instanceof UncheckedIOException)
+      e = e.getCause(); // a page of a walk that could not be fetched
+    if (e instanceof ApplicationTypeException) {
+      log.error("Application type not implemented", e);
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.NOT_ACCEPTABLE);
+    }
+    if (e instanceof IOException) {
       log.error("Couldn't get or serialize response for content type " + parameters.getAccept(), e);
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e),
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
           HttpStatus.INTERNAL_SERVER_ERROR);
-    } catch (LidVidMismatchException e) {
+    }
+    if (e instanceof LidVidMismatchException) {
       log.warn("The lid(vid) '" + parameters.getIdentifier()
           + "' in the data base type does not match given type '" + parameters.getGroup() + "'");
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e), HttpStatus.NOT_FOUND);
-    } catch (LidVidNotFoundException e) {
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.NOT_FOUND);
+    }
+    if (e instanceof LidVidNotFoundException) {
       log.warn("Could not find lid(vid) in database: " + parameters.getIdentifier());
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e), HttpStatus.NOT_FOUND);
-    } catch (MembershipException e) {
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.NOT_FOUND);
+    }
+    if (e instanceof MembershipException) {
       log.warn("The given lid(vid) does not support the requested membership.");
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e), HttpStatus.NOT_FOUND);
-    } catch (NothingFoundException e) {
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.NOT_FOUND);
+    }
+    if (e instanceof NothingFoundException) {
       log.warn("Could not find any matching reference(s) in database.");
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e), HttpStatus.NOT_FOUND);
-    } catch (NoViableAltException | ParseCancellationException e) {
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.NOT_FOUND);
+    }
+    if (e instanceof NoViableAltException || e instanceof ParseCancellationException) {
       log.warn("The given search string '" + parameters.getQuery() + "' cannot be parsed.");
       ParseCancellationException forwarded_exception = new ParseCancellationException(
           "The given search string '" + parameters.getQuery() + "' cannot be parsed.");
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(forwarded_exception),
+      return new ResponseEntity<Object>(this.errorMessageFactory.get(forwarded_exception, request),
           HttpStatus.BAD_REQUEST);
-    } catch (UnknownGroupNameException e) {
+    }
+    if (e instanceof UnsupportedSearchProperty) {
+      log.warn("The given sort '" + parameters.getSort() + "' is not supported: " + e.getMessage());
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.BAD_REQUEST);
+    }
+    if (e instanceof UnknownGroupNameException) {
       log.error("Group name not implemented", e);
-      return new ResponseEntity<Object>(this.errorMessageFactory.get(e), HttpStatus.NOT_ACCEPTABLE);
+      return new ResponseEntity<Object>(this.errorMessageFactory.get((Exception) e, request),
+          HttpStatus.NOT_ACCEPTABLE);
+    }
+    if (e instanceof RuntimeException)
+      throw (RuntimeException) e;
+    throw new IllegalStateException(e);
+  }
+
+  /**
+   * When registry.async.enabled is true, the body of the returned response is a CompletableFuture
+   * of the real response, which AsyncResponseEntityHandler turns into a deferred result so that the
+   * servlet thread is released while OpenSearch works.
+   */
+  protected ResponseEntity<Object> processs(EndpointHandler handler, URIParameters parameters) {
+    long begin = System.currentTimeMillis(), start = System.nanoTime();
+    boolean async = false;
+    try {
+      parameters.setProductIdentifier(this);
+      ConditionalRequest conditional =
+          this.conditionalEnabled && handler.conditional(parameters) ? new ConditionalRequest(
+              this.request, parameters, this.maxAge, this.lidvidMaxAge) : null;
+      ResponseEntity<Object> notModified =
+          conditional == null ? null : conditional.notModified(this, parameters);
+      if (notModified != null)
+        return notModified;
+      if (parameters.getVerifyClassAndId())
+        LidVidUtils.verify(this, parameters);
+      if (!parameters.getSort().isEmpty() && !handler.sorts())
+        throw new UnsupportedSearchProperty("The membership of a product cannot be sorted");
+      if (!parameters.getSort().isEmpty())
+        SortUtil.verify(this.connection, parameters.getSort());
+      if (this.executor != null) {
+        Executor executor = RequestMetrics.propagate(this.executor);
+        async = true;
+        return new ResponseEntity<Object>(
+            handler.transmuteAsync(this, parameters, executor).handleAsync((response, error) -> {
+              try {
+                if (error == null && conditional != null)
+                  return conditional.validated(this, parameters, response);
+                return error == null ? response : this.failure(error, parameters);
+              } finally {
+                RequestMetrics.handler(handler.tags(), System.nanoTime() - start);
+                log.info("Transmuter asynchronous processing of request took: "
+                    + (System.currentTimeMillis() - begin) + " ms");
+              }
+            }, executor), HttpStatus.OK);
+      }
+      ResponseEntity<Object> response = handler.transmute(this, parameters);
+      return conditional == null ? response : conditional.validated(this, parameters, response);
+    } catch (ApplicationTypeException | IOException | LidVidMismatchException
+        | LidVidNotFoundException | MembershipException | NothingFoundException
+        | NoViableAltException | ParseCancellationException | UncheckedIOException
+        | UnknownGroupNameException | UnsupportedSearchProperty e) {
+      return this.failure(e, parameters);
     } finally {
+      if (!async)
+        RequestMetrics.handler(handler.tags(), System.nanoTime() - start);
       log.info(
           "Transmuter processing of request took: " + (System.currentTimeMillis() - begin) + " ms");
     }
@@ -1,7 +1,11 @@
 package gov.nasa.pds.api.registry.controller;
 
 import java.io.IOException;
+import java.net.URL;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
 import gov.nasa.pds.api.registry.ControlContext;
@@ -44,9 +48,13 @@ class URIParameters implements UserContext {
   private final ProductVersionSelector selector;
   private final List<String> sort;
   private final String version;
+  private final URL baseURL;
+  private final String requestURL;
 
   private PdsProductIdentifier productIdentifier;
-
+  // the request may be answered on other threads once async, hence concurrent
+  private final Map<List<Object>, Optional<Object>> memo =
+      new ConcurrentHashMap<List<Object>, Optional<Object>>();
 
 
   public URIParameters(URIParametersBuilder builder) {
@@ -63,6 +71,8 @@ class URIParameters implements UserContext {
     this.selector = builder.selector;
     this.sort = builder.sort;
     this.version = builder.version;
+    this.baseURL = builder.baseURL;
+    this.requestURL = builder.requestURL;
 
   }
 
@@ -142,4 +152,19 @@ class URIParameters implements UserContext {
     return version;
   }
 
+  @Override
+  public Map<List<Object>, Optional<Object>> getMemo() {
+    return this.memo;
+  }
+
+  @Override
+  public URL getBaseURL() {
+    return this.baseURL;
+  }
+
+  /** @return the URL of the request with its query string, for the error messages */
+  String getRequestURL() {
+    return this.requestURL;
+  }
+
 }
@@ -1,7 +1,11 @@
 package gov.nasa.pds.api.registry.controller;
 
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
@@ -13,9 +17,11 @@ import jakarta.servlet.http.HttpServletRequest;
 @Component
 @RequestScope
 public class URIParametersBuilder {
+  private static final Logger log = LoggerFactory.getLogger(URIParametersBuilder.class);
 
   public boolean verifyClassAndId = false;
   public String accept = "application/json";
+  public List<String> acceptable = new ArrayList<String>();
   public List<String> fields = new ArrayList<String>();
   public String group = "";
   public String identifier = "";
@@ -29,6 +35,8 @@ public class URIParametersBuilder {
   public ProductVersionSelector selector = ProductVersionSelector.LATEST;
   public List<String> sort = new ArrayList<String>();
   public String version = "latest";
+  public URL baseURL = null;
+  public String requestURL = "";
 
 
   @Autowired
@@ -43,6 +51,16 @@ public class URIParametersBuilder {
     return this;
   }
 
+  /**
+   * Restrict the response to the given types: the first of them named by the Accept header is
+   * used, the first one when it names none of them.
+   */
+  public URIParametersBuilder setAcceptable(List<String> acceptable) {
+    if (acceptable != null)
+      this.acceptable = acceptable;
+    return this;
+  }
+
   public URIParametersBuilder setFields(List<String> fields) {
     if (fields != null)
       this.fields = fields;
@@ -135,9 +153,37 @@ public class URIParametersBuilder {
 
 
 
+  private static boolean proxyRunsOnDefaultPort(HttpServletRequest request) {
+    return (("https".equals(request.getScheme()) && (request.getServerPort() == 443))
+        || ("http".equals(request.getScheme()) && (request.getServerPort() == 80)));
+  }
+
+  /**
+   * What the response needs to know of the HTTP request is read here, on the servlet thread, since
+   * the request may be answered on another thread once it is no longer bound.
+   */
   public URIParameters build() {
+    try {
+      String proxyContextPath = this.request.getContextPath();
+
+      if (URIParametersBuilder.proxyRunsOnDefaultPort(this.request))
+        this.baseURL =
+            new URL(this.request.getScheme(), this.request.getServerName(), proxyContextPath);
+      else
+        this.baseURL = new URL(this.request.getScheme(), this.request.getServerName(),
+            this.request.getServerPort(), proxyContextPath);
+      log.debug("baseUrl is " + this.baseURL.toString());
+    } catch (MalformedURLException e) {
+      log.error("Server URL was not retrieved");
+    }
+    this.requestURL = this.request.getRequestURL().toString()
+        + (this.request.getQueryString() == null ? "" : "?" + this.request.getQueryString());
 
     this.accept = this.request.getHeader("Accept");
+    if (!this.acceptable.isEmpty())
+      this.accept = this.acceptable.stream()
+          .filter((type) -> this.accept != null && this.accept.contains(type)).findFirst()
+          .orElse(this.acceptable.get(0));
     return new URIParameters(this);
   }
 }
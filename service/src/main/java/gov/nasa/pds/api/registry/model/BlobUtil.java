@@ -2,65 +2,159 @@ package gov.nasa.pds.api.registry.model;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
-import java.util.zip.InflaterInputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
 /**
  * Utility class to extract BLOBs stored in DB
- * 
+ *
+ * The BLOBs are decoded as a stream: base64 is decoded while being inflated and the inflated bytes
+ * go straight to the given output. The Inflaters and their buffers are pooled so that decoding a
+ * page of large labels does not allocate them over and over.
+ *
  * @author karpenko
  */
 public class BlobUtil {
   public static final String JSON_BLOB_PROPERTY = "ops:Label_File_Info/ops:json_blob";
   public static final String XML_BLOB_PROPERTY = "ops:Label_File_Info/ops:blob";
 
+  // idle inflaters kept for reuse, more than that are released when returned
+  private static final int POOL_SIZE = 16;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final BlockingQueue<PooledInflater> pool =
+      new ArrayBlockingQueue<PooledInflater>(POOL_SIZE);
+
+  private static class PooledInflater {
+    final private Inflater inflater = new Inflater();
+    final private byte[] input = new byte[BUFFER_SIZE];
+    final private byte[] output = new byte[BUFFER_SIZE];
+  }
+
+  /**
+   * The characters of a base64 string as the bytes Base64.Decoder.wrap() reads without copying the
+   * string. Anything beyond ASCII is not base64 and turned into a byte the decoder rejects.
+   */
+  private static class Base64Chars extends InputStream {
+    final private String chars;
+    private int position = 0;
+
+    Base64Chars(String chars) {
+      this.chars = chars;
+    }
+
+    @Override
+    public int read() {
+      if (this.chars.length() <= this.position)
+        return -1;
+
+      char c = this.chars.charAt(this.position++);
+      return c < 0x80 ? c : 0x80;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      int count = Math.min(len, this.chars.length() - this.position);
+
+      if (count <= 0)
+        return len == 0 ? 0 : -1;
+      for (int i = 0; i < count; i++) {
+        char c = this.chars.charAt(this.position++);
+        b[off + i] = (byte) (c < 0x80 ? c : 0x80);
+      }
+      return count;
+    }
+  }
+
   /**
    * Decompress base64 encoded BLOB.
-   * 
+   *
    * @param blob Base64 encoded compressed BLOB
    * @return Original BLOB value as a string
    * @throws Exception an exception
    */
   public static String blobToString(String blob) throws Exception {
-    byte[] data = Base64.getDecoder().decode(blob);
-    return blobToString(data);
+    ByteArrayOutputStream dest = new ByteArrayOutputStream(expectedSize(blob.length()));
+    blobToStream(blob, dest);
+    return dest.toString(StandardCharsets.UTF_8);
   }
 
   /**
    * Decompress binary BLOB.
-   * 
+   *
    * @param blob compressed BLOB
    * @return Original BLOB value as a string
    * @throws Exception an exception
    */
   public static String blobToString(byte[] blob) throws Exception {
-    ByteArrayInputStream is = new ByteArrayInputStream(blob);
-    // Decompress ("inflate") the BLOB
-    InflaterInputStream source = new InflaterInputStream(is);
+    ByteArrayOutputStream dest = new ByteArrayOutputStream(expectedSize(blob.length));
+    inflate(new ByteArrayInputStream(blob), dest);
+    return dest.toString(StandardCharsets.UTF_8);
+  }
 
-    ByteArrayOutputStream dest = new ByteArrayOutputStream();
-    copy(source, dest);
-    dest.close();
+  // labels inflate to a few times their compressed size
+  private static int expectedSize(int compressed) {
+    return (int) Math.min(4L * compressed, BUFFER_SIZE);
+  }
 
-    return dest.toString("utf-8");
+  /**
+   * Decompress base64 encoded BLOB into a stream without ever holding it as a whole.
+   *
+   * @param blob Base64 encoded compressed BLOB
+   * @param dest where the original BLOB value is written, it is not closed
+   * @throws IOException when dest fails or the BLOB is not valid
+   */
+  public static void blobToStream(String blob, OutputStream dest) throws IOException {
+    try (InputStream source = Base64.getDecoder().wrap(new Base64Chars(blob))) {
+      inflate(source, dest);
+    }
   }
 
   /**
-   * Copy data from input to output stream
-   * 
-   * @param source source stream
+   * Inflate ("decompress") data from input to output stream
+   *
+   * @param source compressed stream
    * @param dest destination stream
-   * @throws Exception an exception
+   * @throws IOException an exception
    */
-  private static void copy(InputStream source, OutputStream dest) throws Exception {
-    byte[] buf = new byte[1024];
+  private static void inflate(InputStream source, OutputStream dest) throws IOException {
+    PooledInflater pooled = pool.poll();
+
+    if (pooled == null)
+      pooled = new PooledInflater();
+    try {
+      Inflater inflater = pooled.inflater;
+
+      while (!inflater.finished()) {
+        if (inflater.needsInput()) {
+          int count = source.read(pooled.input);
 
-    int count = 0;
-    while ((count = source.read(buf)) >= 0) {
-      dest.write(buf, 0, count);
+          if (count < 0)
+            throw new EOFException("Unexpected end of BLOB");
+          inflater.setInput(pooled.input, 0, count);
+        }
+
+        int count = inflater.inflate(pooled.output);
+
+        if (0 < count)
+          dest.write(pooled.output, 0, count);
+        else if (inflater.needsDictionary())
+          throw new ZipException("BLOB requires a preset dictionary");
+      }
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    } finally {
+      pooled.inflater.reset();
+      if (!pool.offer(pooled))
+        pooled.inflater.end();
     }
   }
-
 }
@@ -0,0 +1,74 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Holds the first bytes written to it, up to a limit, before anything goes to the underlying
+ * stream, so that what is written around them, a field name or an element, is started only once
+ * they are known to come. A BLOB that cannot be decoded fails while it is still held and the
+ * response can be aborted before any of it is sent; one that fails past the limit is thrown past a
+ * response that is already partly sent.
+ *
+ * finish() writes what is still held and leaves the underlying stream open.
+ */
+public class DeferredOutputStream extends OutputStream {
+  /** what to write to the underlying stream before the first byte */
+  public interface Opening {
+    void open() throws IOException;
+  }
+
+  final private OutputStream dest;
+  final private int limit;
+  final private Opening opening;
+  private ByteArrayOutputStream held = new ByteArrayOutputStream();
+
+  /**
+   * @param dest where the bytes end up
+   * @param limit how many bytes may be held before the opening is written
+   * @param opening written to dest before the first byte
+   */
+  public DeferredOutputStream(OutputStream dest, int limit, Opening opening) {
+    this.dest = dest;
+    this.limit = limit;
+    this.opening = opening;
+  }
+
+  private void open() throws IOException {
+    ByteArrayOutputStream held = this.held;
+
+    this.held = null;
+    this.opening.open();
+    held.writeTo(this.dest);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (this.held != null && this.held.size() < this.limit)
+      this.held.write(b);
+    else {
+      if (this.held != null)
+        this.open();
+      this.dest.write(b);
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (this.held != null && this.held.size() + len <= this.limit)
+      this.held.write(b, off, len);
+    else {
+      if (this.held != null)
+        this.open();
+      this.dest.write(b, off, len);
+    }
+  }
+
+  /** Write the opening, when it is not yet, and whatever is held. */
+  public void finish() throws IOException {
+    if (this.held != null)
+      this.open();
+    this.dest.flush();
+  }
+}
@@ -0,0 +1,63 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A BLOB as stored in the registry that is decoded only when written out, straight into the
+ * response, so that large labels are never held in memory as a String.
+ */
+public class EncodedBlob {
+  private static final Logger log = LoggerFactory.getLogger(EncodedBlob.class);
+
+  final private String blob;
+  final private boolean xml;
+
+  public EncodedBlob(String blob) {
+    this(blob, false);
+  }
+
+  /**
+   * @param blob the base64 encoded compressed BLOB
+   * @param xml true for an XML label to be embedded in another XML document, see XmlLabelFilter
+   */
+  public EncodedBlob(String blob, boolean xml) {
+    this.blob = blob;
+    this.xml = xml;
+  }
+
+  /**
+   * Write the decoded BLOB.
+   *
+   * @param dest where the decoded BLOB is written, it is not closed
+   * @throws IOException when dest fails or the BLOB is not valid
+   */
+  public void writeTo(OutputStream dest) throws IOException {
+    if (this.xml) {
+      XmlLabelFilter filter = new XmlLabelFilter(dest);
+      BlobUtil.blobToStream(this.blob, filter);
+      filter.close();
+    } else
+      BlobUtil.blobToStream(this.blob, dest);
+  }
+
+  /**
+   * @return the decoded BLOB for the few places that need it as a whole
+   */
+  @Override
+  public String toString() {
+    try {
+      ByteArrayOutputStream dest = new ByteArrayOutputStream();
+      this.writeTo(dest);
+      return dest.toString(StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      log.error("Could not convert the given blob", e);
+      return "Could not decode blob. See logs for error details.";
+    }
+  }
+}
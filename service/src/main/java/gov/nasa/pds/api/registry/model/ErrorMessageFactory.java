@@ -15,8 +15,6 @@ public class ErrorMessageFactory {
   HttpServletRequest request;
 
   public Object get(Exception err) {
-    ErrorMessage em = new ErrorMessage();
-
     ArrayList<String> requestArray = new ArrayList<String>();
 
     requestArray.add(this.request.getRequestURL().toString());
@@ -26,7 +24,14 @@ public class ErrorMessageFactory {
       requestArray.add(queryString);
     }
 
-    em.setRequest(String.join("?", requestArray));
+    return this.get(err, String.join("?", requestArray));
+  }
+
+  /** for the requests answered on a thread they are not bound to */
+  public Object get(Exception err, String request) {
+    ErrorMessage em = new ErrorMessage();
+
+    em.setRequest(request);
 
     em.setMessage(err.getMessage() == null || err.getMessage().length() == 0 ? err.toString()
         : err.getMessage());
@@ -0,0 +1,308 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.LidvidsContext;
+import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
+import gov.nasa.pds.api.registry.search.HitIterator;
+import gov.nasa.pds.api.registry.search.VersionIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * The edges of the membership graph (bundle to collections, collection to products, collection to
+ * bundles and product to collections) already walked, so that the members and member-of endpoints
+ * and their two step forms do not walk them again.
+ *
+ * An entry is the complete list of the lidvids at the other end of the edges of one product, for
+ * either all or just the latest versions, held as an array of interned strings so that a lidvid
+ * found in several lists, or by several requests, is held once. Lists longer than
+ * membership.cache.maxList are not kept and the cache holds at most membership.cache.size lidvids
+ * in all, evicting the least recently used lists first. A size of 0 disables it.
+ *
+ * A request that walks only part of a list, to fill its page, does not walk the rest for the
+ * cache: fill() walks it on a background thread instead, one list at a time.
+ *
+ * Every membership.cache.checkSeconds the latest ops:Harvest_Info/ops:harvest_date_time of the
+ * registry index is read. When it changed, the products harvested since the time seen before tell
+ * which lists may have changed: a bundle drops the parents of every collection, a collection the
+ * children of every bundle, the parents of every product and its own children, and any other
+ * product the lists of all the versions of the children of every collection. The lists of the
+ * latest versions of the children of the collections that were not harvested again are kept. A list
+ * walked while that happens is not kept: the walk reads generation() before it starts and put()
+ * drops the list once the generation changed.
+ *
+ * A change of ops:Tracking_Meta/ops:archive_status alone does not change the harvest time, so it
+ * is not seen: the lists walked before it are served until they are evicted or a later harvest
+ * drops them.
+ */
+@Component
+class MembershipCache {
+  private static final Logger log = LoggerFactory.getLogger(MembershipCache.class);
+
+  enum Edge {
+    BUNDLE_CHILDREN, COLLECTION_CHILDREN, COLLECTION_PARENTS, PRODUCT_PARENTS
+  }
+
+  @Value("${membership.cache.size:0}")
+  private long propCacheSize;
+  @Value("${membership.cache.maxList:100000}")
+  private int propMaxList;
+  private static final long OVERLAP = 600000L; // harvested products take a while to be searchable
+  private static final int MAX_HARVESTED = 10000; // past that many, drop everything
+  private static final int MAX_FILLING = 64;
+
+  @Value("${membership.cache.checkSeconds:60}")
+  private long propCheckSeconds;
+  @Autowired
+  private ConnectionContext connection;
+  @Autowired(required = false)
+  private MeterRegistry registry;
+
+  private static Cache<List<Object>, String[]> cache = null;
+  private static int maxList = 0;
+  private static final Interner<String> lidvids = Interners.newWeakInterner();
+  private static ExecutorService filler = null;
+  private static final Set<List<Object>> filling = ConcurrentHashMap.newKeySet();
+  private static final AtomicLong generation = new AtomicLong(); // bumped by every invalidation
+
+  private ScheduledExecutorService scheduler = null;
+  private double harvested = Double.NaN;
+
+  /** Walks the members of a product, within bounds. */
+  interface Walk {
+    Pagination<String> members(LidvidsContext bounds) throws IOException, LidVidNotFoundException;
+  }
+
+  /** the first count members of a product */
+  private static class Bounds implements LidvidsContext {
+    final private String lidvid;
+    final private int count;
+
+    Bounds(String lidvid, int count) {
+      this.lidvid = lidvid;
+      this.count = count;
+    }
+
+    @Override
+    public String getLidVid() {
+      return this.lidvid;
+    }
+
+    @Override
+    public Integer getLimit() {
+      return this.count;
+    }
+
+    @Override
+    public Integer getStart() {
+      return 0;
+    }
+
+    @Override
+    public boolean getSingletonResultExpected() {
+      return false;
+    }
+  }
+
+  @PostConstruct
+  public void init() {
+    if (0 < this.propCacheSize) {
+      cache = CacheBuilder.newBuilder().maximumWeight(this.propCacheSize)
+          .weigher((List<Object> key, String[] members) -> members.length + 1).recordStats()
+          .build();
+      maxList = this.propMaxList;
+      if (this.registry != null)
+        GuavaCacheMetrics.monitor(this.registry, cache, "registry.membership");
+
+      this.scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+        Thread thread = new Thread(runnable, "registry-membership-cache");
+        thread.setDaemon(true);
+        return thread;
+      });
+      filler = this.scheduler;
+      try {
+        this.harvested = VersionIndex.latestHarvest(this.connection);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Could not read the latest harvest time, the first check drops the cache", e);
+      }
+      this.scheduler.scheduleWithFixedDelay(this::check, this.propCheckSeconds,
+          this.propCheckSeconds, TimeUnit.SECONDS);
+      log.info("Membership cache holds " + this.propCacheSize + " lidvids in lists of at most "
+          + this.propMaxList);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (this.scheduler != null)
+      this.scheduler.shutdownNow();
+  }
+
+  private void check() {
+    try {
+      double latest = VersionIndex.latestHarvest(this.connection);
+
+      if (Double.compare(this.harvested, latest) != 0) {
+        generation.incrementAndGet();
+        if (Double.isNaN(this.harvested) || Double.isInfinite(this.harvested)) {
+          log.info("Harvest time not known before, dropping the membership cache");
+          cache.invalidateAll();
+        } else
+          this.invalidate((long) this.harvested);
+        this.harvested = latest;
+      }
+    } catch (IOException | RuntimeException e) {
+      // better stale for a little while longer than not at all
+      log.error("Could not read the latest harvest time", e);
+    }
+  }
+
+  private static String first(Object value) {
+    if (value instanceof List)
+      return ((List<?>) value).isEmpty() ? null : String.valueOf(((List<?>) value).get(0));
+    return value == null ? null : String.valueOf(value);
+  }
+
+  /** Drop the lists the products harvested since the given time may have changed. */
+  private void invalidate(long since) throws IOException {
+    Set<Edge> edges = EnumSet.noneOf(Edge.class);
+    Set<String> collections = new HashSet<String>();
+    boolean others = false;
+    int count = 0;
+
+    HitIterator products = new HitIterator(this.connection.getRestHighLevelClient(),
+        new SearchRequest().indices(this.connection.getRegistryIndex())
+            .source(new SearchSourceBuilder()
+                .query(QueryBuilders.rangeQuery(VersionIndex.HARVEST_TIME).format("epoch_millis")
+                    .gte(since - OVERLAP))
+                .fetchSource(new String[] {"lidvid", "product_class"}, null)),
+        HitIterator.REGISTRY_CURSOR);
+    for (Map<String, Object> product : products) {
+      String productClass = first(product.get("product_class"));
+
+      if (MAX_HARVESTED < ++count) {
+        log.info("More than " + MAX_HARVESTED + " products harvested, dropping all memberships");
+        cache.invalidateAll();
+        return;
+      }
+      if ("Product_Bundle".equals(productClass))
+        edges.add(Edge.COLLECTION_PARENTS);
+      else if ("Product_Collection".equals(productClass)) {
+        edges.add(Edge.BUNDLE_CHILDREN);
+        edges.add(Edge.PRODUCT_PARENTS);
+        collections.add(first(product.get("lidvid")));
+      } else
+        others = true;
+    }
+
+    int dropped = 0;
+    for (List<Object> key : cache.asMap().keySet()) {
+      boolean children = key.get(0) == Edge.COLLECTION_CHILDREN;
+      boolean all = Boolean.TRUE.equals(key.get(1));
+
+      if ((edges.contains(key.get(0)) || (children && others && all)
+          || (children && collections.contains(key.get(2)))) && cache.asMap().remove(key) != null)
+        dropped++;
+    }
+    log.info(count + " products harvested, dropped " + dropped + " membership lists");
+  }
+
+  private static List<Object> key(Edge edge, ProductVersionSelector selection, String lidvid) {
+    return Arrays.asList(edge, selection == ProductVersionSelector.ALL, lidvid);
+  }
+
+  /** @return whether a list of that many members would be kept */
+  static boolean fits(int members) {
+    return cache != null && members <= maxList;
+  }
+
+  /** @return the members of lidvid along edge, null when they are not known */
+  static List<String> get(Edge edge, ProductVersionSelector selection, String lidvid) {
+    String[] members = cache == null ? null : cache.getIfPresent(key(edge, selection, lidvid));
+    return members == null ? null : Arrays.asList(members);
+  }
+
+  /**
+   * Walk every member of lidvid along edge off the request path and keep them, if there are not too
+   * many of them, unless they are already being walked or too many lists are waiting.
+   */
+  static void fill(Edge edge, ProductVersionSelector selection, String lidvid, Walk walk) {
+    List<Object> key = key(edge, selection, lidvid);
+
+    if (!fits(0) || MAX_FILLING <= filling.size() || !filling.add(key))
+      return;
+    try {
+      long walked = generation.get();
+      filler.execute(() -> {
+        try {
+          Pagination<String> members = walk.members(new Bounds(lidvid, maxList + 1));
+          // the members are not kept once a harvest may have changed them during the walk
+          if (!members.totalIsLowerBound() && members.size() == members.total())
+            put(edge, selection, lidvid, members.page(), walked);
+        } catch (IOException | LidVidNotFoundException | RuntimeException e) {
+          log.warn("Could not walk the members of " + lidvid, e);
+        } finally {
+          filling.remove(key);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      filling.remove(key);
+    }
+  }
+
+  /** @return the generation to give put() for the members walked from now on */
+  static long generation() {
+    return generation.get();
+  }
+
+  /**
+   * Keep every member of lidvid along edge, if there are not too many of them and no harvest may
+   * have changed them since generation() returned walked.
+   */
+  static void put(Edge edge, ProductVersionSelector selection, String lidvid,
+      List<String> members, long walked) {
+    if (fits(members.size()) && walked == generation.get()) {
+      List<Object> key = key(edge, selection, lidvid);
+      String[] interned = new String[members.size()];
+
+      for (int i = 0; i < interned.length; i++)
+        interned[i] = lidvids.intern(members.get(i));
+      cache.put(key, interned);
+      // an invalidation that began after the check above may have missed it
+      if (walked != generation.get())
+        cache.asMap().remove(key, interned);
+    }
+  }
+}
@@ -12,4 +12,6 @@ public interface Pagination<T> {
   public int start(); // first index of page is this index in all possible items T over all pages
 
   public int total(); // total number of items T over all pages
+
+  public boolean totalIsLowerBound(); // total() stopped counting once the page was filled
 }
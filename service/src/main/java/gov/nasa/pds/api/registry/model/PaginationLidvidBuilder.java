@@ -12,6 +12,7 @@ class PaginationLidvidBuilder implements Pagination<String> {
   final private List<String> page = new ArrayList<String>();
 
   private int total = 0;
+  private boolean lowerBound = false;
 
   PaginationLidvidBuilder(LidvidsContext bounds) {
     this.limit = bounds.getLimit();
@@ -33,6 +34,23 @@ class PaginationLidvidBuilder implements Pagination<String> {
     this.total += data.size();
   }
 
+  /**
+   * @return true once every item of the requested page has been seen so that a traversal can stop
+   *         and either set the exact total from a count or leave total() as a lower bound
+   */
+  boolean isFull() {
+    return (long) this.start + this.limit <= this.total;
+  }
+
+  void setTotal(int total) {
+    this.total = total;
+    this.lowerBound = false;
+  }
+
+  void stop() {
+    this.lowerBound = true;
+  }
+
   void add(Object sourceMapValue) {
     this.addAll(this.convert(sourceMapValue));
   }
@@ -70,4 +88,9 @@ class PaginationLidvidBuilder implements Pagination<String> {
     return this.total;
   }
 
+  @Override
+  public boolean totalIsLowerBound() {
+    return this.lowerBound;
+  }
+
 }
@@ -77,47 +77,45 @@ public class Pds4ProductBusinessObject extends ProductBusinessLogicImpl {
     this.product = Pds4ProductFactory.createProduct(hit.getId(), hit.getSourceAsMap(), this.isJSON);
   }
 
-  @Override
-  public int setResponse(HitIterator hits, Summary summary, List<String> fields) {
-    List<Pds4Product> list = new ArrayList<Pds4Product>();
-    Pds4Products products = new Pds4Products();
+  private static Set<String> properties(Iterable<SearchHit> page, List<String> fields) {
     Set<String> uniqueProperties = new TreeSet<String>();
 
-    for (Map<String, Object> kvp : hits) {
-      uniqueProperties
-          .addAll(ProductBusinessObject.getFilteredProperties(kvp, fields, null).keySet());
+    for (SearchHit hit : page)
+      uniqueProperties.addAll(
+          ProductBusinessObject.getFilteredProperties(hit.getSourceAsMap(), fields, null).keySet());
+    return uniqueProperties;
+  }
 
-      Pds4Product prod = Pds4ProductFactory.createProduct(hits.getCurrentId(), kvp, this.isJSON);
-      list.add(prod);
-    }
+  @Override
+  public int setResponse(HitIterator hits, Summary summary, List<String> fields) {
+    Pds4Products products = new Pds4Products();
 
-    products.setData(list);
+    products.setData(new StreamedHitList<Pds4Product>(hits,
+        (kvp) -> Pds4ProductFactory.createProduct(hits.getCurrentId(), kvp, this.isJSON)));
+    // the hits past the first page are read only once the summary is written
+    summary.setProperties(new ArrayList<String>(
+        properties(hits.getPage() == null ? List.of() : hits.getPage(), fields)));
     products.setSummary(summary);
-    summary.setProperties(new ArrayList<String>(uniqueProperties));
     this.products = products;
-    return list.size();
+    return hits.getExpectedCount(); // not the size of the list, MAX_VALUE when not counted
   }
 
   @Override
   public int setResponse(SearchHits hits, Summary summary, List<String> fields) {
     List<Pds4Product> list = new ArrayList<Pds4Product>();
     Pds4Products products = new Pds4Products();
-    Set<String> uniqueProperties = new TreeSet<String>();
 
     // Products
     for (SearchHit hit : hits) {
       String id = hit.getId();
       Map<String, Object> fieldMap = hit.getSourceAsMap();
 
-      uniqueProperties
-          .addAll(ProductBusinessObject.getFilteredProperties(fieldMap, fields, null).keySet());
-
       Pds4Product prod = Pds4ProductFactory.createProduct(id, fieldMap, this.isJSON);
       list.add(prod);
     }
     products.setData(list);
     products.setSummary(summary);
-    summary.setProperties(new ArrayList<String>(uniqueProperties));
+    summary.setProperties(new ArrayList<String>(properties(hits, fields)));
     this.products = products;
     return (int) hits.getTotalHits().value;
   }
@@ -59,32 +59,15 @@ public class Pds4ProductFactory {
     if (fieldMap == null)
       return prod;
 
-    // Pds4 JSON BLOB
-    String blob = null;
-    String decoded_blob = null;
+    // Pds4 BLOB, decoded while being written (see the Pds4 serializers) where the XML label also
+    // loses its carriage returns and processing instructions
     try {
-
-      if (isJSON) {
-        blob = getVal(fieldMap, FLD_JSON_BLOB);
-        decoded_blob = BlobUtil.blobToString(String.valueOf(blob));
-      } else {
-        int first, last;
-        blob = getVal(fieldMap, FLD_XML_BLOB);
-        decoded_blob = BlobUtil.blobToString(String.valueOf(blob));
-        decoded_blob = decoded_blob.replaceAll("\r", "");
-        first = decoded_blob.indexOf("<?");
-        while (0 <= first) {
-          last = decoded_blob.indexOf("?>", first + 2);
-          decoded_blob = decoded_blob.replace(decoded_blob.substring(first, last + 2), "");
-          first = decoded_blob.indexOf("<?");
-        }
-        decoded_blob = decoded_blob.strip();
-      }
+      prod.setPds4(new EncodedBlob(
+          String.valueOf(getVal(fieldMap, isJSON ? FLD_JSON_BLOB : FLD_XML_BLOB)), !isJSON));
     } catch (Exception e) {
       log.error("Could not convert the given blob", e);
-      decoded_blob = "Could not decode blob. See logs for error details.";
+      prod.setPds4("Could not decode blob. See logs for error details.");
     }
-    prod.setPds4(decoded_blob);
     // Metadata
     prod.setMetadata(createMetadata(fieldMap));
 
@@ -54,29 +54,33 @@ public class PdsProductBusinessObject extends ProductBusinessLogicImpl {
     this.product = product;
   }
 
+  private static Set<String> properties(Iterable<SearchHit> page, List<String> fields) {
+    Set<String> uniqueProperties = new TreeSet<String>();
+
+    for (SearchHit hit : page)
+      uniqueProperties.addAll(
+          ProductBusinessObject.getFilteredProperties(hit.getSourceAsMap(), fields, null).keySet());
+    return uniqueProperties;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public int setResponse(HitIterator hits, Summary summary, List<String> fields) {
-    int count;
     PdsProducts products = new PdsProducts();
-    Set<String> uniqueProperties = new TreeSet<String>();
-
-    for (Map<String, Object> kvp : hits) {
-      uniqueProperties
-          .addAll(ProductBusinessObject.getFilteredProperties(kvp, fields, null).keySet());
 
-      products.addDataItem(SearchUtil.entityProductToAPIProduct(
-          objectMapper.convertValue(kvp, EntityProduct.class), this.baseURL));
-      products.getData().get(products.getData().size() - 1)
-          .setProperties((Map<String, List<String>>) (Map<String, ?>) ProductBusinessObject
-              .getFilteredProperties(kvp, null, null));
-    }
-    count = products.getData().size();
-
-    summary.setProperties(new ArrayList<String>(uniqueProperties));
+    products.setData(new StreamedHitList<PdsProduct>(hits, (kvp) -> {
+      PdsProduct product = SearchUtil.entityProductToAPIProduct(
+          objectMapper.convertValue(kvp, EntityProduct.class), this.baseURL);
+      product.setProperties((Map<String, List<String>>) (Map<String, ?>) ProductBusinessObject
+          .getFilteredProperties(kvp, null, null));
+      return product;
+    }));
+    // the hits past the first page are read only once the summary is written
+    summary.setProperties(new ArrayList<String>(
+        properties(hits.getPage() == null ? List.of() : hits.getPage(), fields)));
     products.setSummary(summary);
     this.products = products;
-    return count;
+    return hits.getExpectedCount(); // not the size of the list, MAX_VALUE when not counted
   }
 
   @Override
@@ -84,13 +88,9 @@ public class PdsProductBusinessObject extends ProductBusinessLogicImpl {
   public int setResponse(SearchHits hits, Summary summary, List<String> fields) {
     Map<String, Object> kvp;
     PdsProducts products = new PdsProducts();
-    Set<String> uniqueProperties = new TreeSet<String>();
 
     for (SearchHit hit : hits) {
       kvp = hit.getSourceAsMap();
-      uniqueProperties
-          .addAll(ProductBusinessObject.getFilteredProperties(kvp, fields, null).keySet());
-
       products.addDataItem(SearchUtil.entityProductToAPIProduct(
           objectMapper.convertValue(kvp, EntityProduct.class), this.baseURL));
       products.getData().get(products.getData().size() - 1)
@@ -98,7 +98,7 @@ public class PdsProductBusinessObject extends ProductBusinessLogicImpl {
               .getFilteredProperties(kvp, null, null));
     }
 
-    summary.setProperties(new ArrayList<String>(uniqueProperties));
+    summary.setProperties(new ArrayList<String>(properties(hits, fields)));
     products.setSummary(summary);
     this.products = products;
     return (int) hits.getTotalHits().value;
@@ -1,5 +1,6 @@
 package gov.nasa.pds.api.registry.model;
 
+import java.net.URL;
 import java.util.List;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
@@ -14,10 +15,15 @@ public interface ProductBusinessLogic {
 
   public Object getResponse();
 
+  public void setBaseURL(URL baseURL);
+
   public void setObjectMapper(ObjectMapper om);
 
   public void setResponse(SearchHit hit, List<String> fields);
 
+  /**
+   * @return how many hits the response holds, -1 when the walk does not count them
+   */
   public int setResponse(HitIterator hits, Summary summary, List<String> fields);
 
   public int setResponse(SearchHits hits, Summary summary, List<String> fields);
@@ -3,6 +3,7 @@ package gov.nasa.pds.api.registry.model;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.PostConstruct;
 
@@ -10,18 +11,27 @@ import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CodePointCharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import gov.nasa.pds.api.registry.GroupConstraint;
 import gov.nasa.pds.api.registry.lexer.SearchLexer;
 import gov.nasa.pds.api.registry.lexer.SearchParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 
 @Component
 public class ProductQueryBuilderUtil {
@@ -31,6 +41,13 @@ public class ProductQueryBuilderUtil {
   private String propArchiveStatusFilter;
   private static List<String> archiveStatusFilter;
 
+  @Value("${queryString.cache.size:0}")
+  private long propQueryCacheSize;
+  @Value("${queryString.cache.ttlSeconds:3600}")
+  private long propQueryCacheTTL;
+  @Autowired(required = false)
+  private MeterRegistry registry;
+  private static Cache<String, ParseTree> queryCache = null;
 
   /**
    * Init archive status filter
@@ -51,6 +68,14 @@ public class ProductQueryBuilderUtil {
     if (!list.isEmpty()) {
       archiveStatusFilter = list;
     }
+
+    if (0 < this.propQueryCacheSize) {
+      queryCache = CacheBuilder.newBuilder().maximumSize(this.propQueryCacheSize)
+          .expireAfterAccess(this.propQueryCacheTTL, TimeUnit.SECONDS).recordStats().build();
+      if (this.registry != null)
+        GuavaCacheMetrics.monitor(this.registry, queryCache, "registry.querystring");
+      log.info("Parsed q= cache holds " + this.propQueryCacheSize + " queries");
+    }
   }
 
   public static void addArchiveStatusFilter(BoolQueryBuilder boolQuery) {
@@ -87,16 +112,22 @@ public class ProductQueryBuilderUtil {
     }
   }
 
+  /**
+   * Compile a q= string into its query.
+   *
+   * When queryString.cache.size is larger than 0 the parse trees are kept in an LRU cache keyed by
+   * the trimmed query string, so only the parsing is saved: every call walks the tree into a new
+   * builder that the caller is free to modify. Strings that do not parse are not cached.
+   */
   public static BoolQueryBuilder parseQueryString(String queryString) {
-    CodePointCharStream input = CharStreams.fromString(queryString);
-    SearchLexer lex = new SearchLexer(input);
-    CommonTokenStream tokens = new CommonTokenStream(lex);
-
-    SearchParser par = new SearchParser(tokens);
-    par.setErrorHandler(new BailErrorStrategy());
-    ParseTree tree = par.query();
+    String key = queryString.strip();
+    ParseTree tree = queryCache == null ? null : queryCache.getIfPresent(key);
 
-    log.debug(tree.toStringTree(par));
+    if (tree == null) {
+      tree = ProductQueryBuilderUtil.parse(key);
+      if (queryCache != null)
+        queryCache.put(key, tree);
+    }
 
     // Walk it and attach our listener
     ParseTreeWalker walker = new ParseTreeWalker();
@@ -106,4 +137,30 @@ public class ProductQueryBuilderUtil {
     return listener.getBoolQuery();
   }
 
+  private static ParseTree parse(String queryString) {
+    CodePointCharStream input = CharStreams.fromString(queryString);
+    SearchLexer lex = new SearchLexer(input);
+    CommonTokenStream tokens = new CommonTokenStream(lex);
+
+    // SLL is enough for nearly every input and much cheaper; only when it bails is the input
+    // parsed again with full LL, which is also what reports the real syntax errors
+    SearchParser par = new SearchParser(tokens);
+    par.setErrorHandler(new BailErrorStrategy());
+    par.removeErrorListeners();
+    par.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    ParseTree tree;
+    try {
+      tree = par.query();
+    } catch (ParseCancellationException pce) {
+      tokens.seek(0);
+      par.reset();
+      par.addErrorListener(ConsoleErrorListener.INSTANCE);
+      par.getInterpreter().setPredictionMode(PredictionMode.LL);
+      tree = par.query();
+    }
+
+    log.debug(tree.toStringTree(par));
+    return tree;
+  }
+
 }
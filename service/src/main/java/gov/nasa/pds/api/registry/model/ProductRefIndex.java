@@ -0,0 +1,344 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.opensearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.update.UpdateRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.client.indices.CreateIndexRequest;
+import org.opensearch.client.indices.GetMappingsRequest;
+import org.opensearch.client.indices.PutMappingRequest;
+import org.opensearch.cluster.metadata.MappingMetadata;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.script.Script;
+import org.opensearch.script.ScriptType;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.search.HitIterator;
+import gov.nasa.pds.api.registry.search.VersionIndex;
+
+/**
+ * The collections of every product, one small document per product_lidvid, so that the parents of
+ * a product are found with a get instead of a term query inside the large product_lidvid arrays of
+ * the registry-refs pages.
+ *
+ * The index is built from registry-refs by the productrefs actuator endpoint: a POST to
+ * /actuator/productrefs builds a new productRefs.index-timestamp index in the background and then
+ * moves the productRefs.index alias onto it, deleting the index it was on before; a GET tells how
+ * far the build is. The time of the latest harvest seen when the build started is kept in the
+ * _meta of the index.
+ *
+ * The service does not authenticate anyone so the endpoint is not exposed over the web by default:
+ * it is in management.endpoints.web.exposure.exclude. An operator who builds the index takes it
+ * out of that list and serves the actuator on a management.server.port only they reach, or behind
+ * a proxy that authenticates them.
+ *
+ * Once there is such an index, every productRefs.checkSeconds the alias is read back and, when
+ * something was harvested since that time, the registry-refs pages of the collections harvested
+ * since then, which are harvested with their collection, are added to it before the time is moved
+ * on. Until that is done, or when there is no such index, or when productRefs.checkSeconds is 0,
+ * parents() gives null and the caller walks registry-refs as it would have without the index.
+ */
+@Component
+@Endpoint(id = "productrefs")
+class ProductRefIndex {
+  private static final Logger log = LoggerFactory.getLogger(ProductRefIndex.class);
+  private static final int PAGE_SIZE = 50; // registry-refs pages hold thousands of lidvids each
+  private static final int BULK_SIZE = 5000;
+  private static final int TERMS = 1000; // collection lidvids asked for at once
+  private static final long OVERLAP = 600000L; // harvested products take a while to be searchable
+  private static final String HARVESTED = "harvested";
+  private static final String ADD = "if (ctx._source.collection_lidvid.contains(params.lidvid)) "
+      + "{ ctx.op = 'none' } else { ctx._source.collection_lidvid.add(params.lidvid); "
+      + "ctx._source.collection_lid.add(params.lid) }";
+
+  @Value("${productRefs.index:registry-product-refs}")
+  private String index;
+  @Value("${productRefs.checkSeconds:60}")
+  private long checkSeconds;
+  @Autowired
+  private ConnectionContext connection;
+
+  private static volatile String current = null; // the index when it can be used, null otherwise
+
+  private ScheduledExecutorService scheduler = null;
+  private ScheduledFuture<?> checking = null; // only once there is an index to check
+  private volatile boolean building = false;
+  private volatile String lastBuild = "none";
+  final private AtomicLong written = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+      Thread thread = new Thread(runnable, "registry-product-refs");
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (0 < this.checkSeconds)
+      this.scheduler.execute(() -> {
+        try {
+          if (!this.connection.getRestHighLevelClient().indices()
+              .getAlias(new GetAliasesRequest(this.index), RequestOptions.DEFAULT).getAliases()
+              .isEmpty())
+            this.schedule();
+        } catch (IOException | RuntimeException e) {
+          log.error("Could not look for the product refs index, it is not used until built", e);
+        }
+      });
+  }
+
+  // only ever called on the scheduler thread
+  private void schedule() {
+    if (this.checking == null)
+      this.checking = this.scheduler.scheduleWithFixedDelay(this::check, 0L, this.checkSeconds,
+          TimeUnit.SECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    this.scheduler.shutdownNow();
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    Map<String, Object> status = new HashMap<String, Object>();
+
+    status.put("index", this.index);
+    status.put("used", current != null);
+    status.put("building", this.building);
+    status.put("written", this.written.get());
+    status.put("lastBuild", this.lastBuild);
+    return status;
+  }
+
+  @WriteOperation
+  public synchronized Map<String, Object> build() {
+    if (!this.building) {
+      this.building = true;
+      this.written.set(0L);
+      this.scheduler.execute(this::rebuild);
+    }
+    return this.status();
+  }
+
+  private void check() {
+    try {
+      RestHighLevelClient client = this.connection.getRestHighLevelClient();
+      double harvested = Double.NaN;
+      String target = null;
+
+      for (Map.Entry<String, MappingMetadata> mapping : client.indices()
+          .getMapping(new GetMappingsRequest().indices(this.index), RequestOptions.DEFAULT)
+          .mappings().entrySet()) {
+        Object meta = mapping.getValue().getSourceAsMap().get("_meta");
+        target = mapping.getKey();
+        if (meta instanceof Map && ((Map<?, ?>) meta).get(HARVESTED) instanceof Number)
+          harvested = ((Number) ((Map<?, ?>) meta).get(HARVESTED)).doubleValue();
+      }
+      if (target == null || Double.isNaN(harvested)) {
+        current = null;
+        return;
+      }
+
+      double latest = VersionIndex.latestHarvest(this.connection);
+      if (harvested < latest) {
+        current = null;
+        this.update(client, target, harvested, latest);
+      }
+      current = this.index;
+    } catch (OpenSearchStatusException e) {
+      if (e.status() != RestStatus.NOT_FOUND)
+        log.error("Could not check the product refs index", e);
+      current = null;
+    } catch (IOException | RuntimeException e) {
+      log.error("Could not check the product refs index", e);
+      current = null;
+    }
+  }
+
+  private void rebuild() {
+    long begin = System.currentTimeMillis();
+    String target = this.index + "-" + begin;
+
+    try {
+      this.fill(target);
+      this.lastBuild = target + " with " + this.written.get() + " updates in "
+          + (System.currentTimeMillis() - begin) + " ms";
+      log.info("Product refs index built as " + this.lastBuild);
+    } catch (IOException | RuntimeException e) {
+      this.lastBuild = target + " failed: " + e.getMessage();
+      log.error("Could not build the product refs index " + target, e);
+    } finally {
+      this.building = false;
+    }
+    if (0 < this.checkSeconds)
+      this.schedule();
+  }
+
+  private static String first(Object value) {
+    if (value instanceof List)
+      return ((List<?>) value).isEmpty() ? null : String.valueOf(((List<?>) value).get(0));
+    return value == null ? null : String.valueOf(value);
+  }
+
+  private void fill(String target) throws IOException {
+    RestHighLevelClient client = this.connection.getRestHighLevelClient();
+    Map<String, Object> keyword = Collections.singletonMap("type", "keyword");
+    Map<String, Object> properties = new HashMap<String, Object>();
+    Map<String, Object> mapping = new HashMap<String, Object>();
+
+    properties.put("collection_lid", keyword);
+    properties.put("collection_lidvid", keyword);
+    mapping.put("dynamic", false);
+    mapping.put("properties", properties);
+    // what is harvested while walking registry-refs is added by the checks that follow
+    mapping.put("_meta",
+        Collections.singletonMap(HARVESTED, VersionIndex.latestHarvest(this.connection)));
+    client.indices().create(new CreateIndexRequest(target).mapping(mapping),
+        RequestOptions.DEFAULT);
+
+    this.add(client, target, QueryBuilders.matchAllQuery());
+    client.indices().refresh(new RefreshRequest(target), RequestOptions.DEFAULT);
+
+    IndicesAliasesRequest swap = new IndicesAliasesRequest();
+    swap.addAliasAction(AliasActions.add().index(target).alias(this.index));
+    for (String previous : client.indices()
+        .getAlias(new GetAliasesRequest(this.index), RequestOptions.DEFAULT).getAliases().keySet())
+      swap.addAliasAction(AliasActions.removeIndex().index(previous));
+    client.indices().updateAliases(swap, RequestOptions.DEFAULT);
+  }
+
+  /**
+   * Add the registry-refs pages of the collections harvested since the given time to target and
+   * then keep latest as the time it is up to date with.
+   */
+  private void update(RestHighLevelClient client, String target, double since, double latest)
+      throws IOException {
+    BoolQueryBuilder query = QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery("product_class", "Product_Collection"));
+    List<String> collections = new ArrayList<String>();
+    long begin = System.currentTimeMillis(), before = this.written.get();
+
+    if (!Double.isInfinite(since))
+      query.filter(QueryBuilders.rangeQuery(VersionIndex.HARVEST_TIME).format("epoch_millis")
+          .gte((long) since - OVERLAP));
+    for (Map<String, Object> collection : new HitIterator(this.connection.getRestHighLevelClient(),
+        new SearchRequest().indices(this.connection.getRegistryIndex()).source(
+            new SearchSourceBuilder().query(query).fetchSource(new String[] {"lidvid"}, null)),
+        HitIterator.REGISTRY_CURSOR)) {
+      collections.add(first(collection.get("lidvid")));
+      if (TERMS <= collections.size()) {
+        this.add(client, target, QueryBuilders.termsQuery("collection_lidvid", collections));
+        collections.clear();
+      }
+    }
+    if (!collections.isEmpty())
+      this.add(client, target, QueryBuilders.termsQuery("collection_lidvid", collections));
+    client.indices().refresh(new RefreshRequest(target), RequestOptions.DEFAULT);
+    client.indices().putMapping(new PutMappingRequest(target)
+        .source(Collections.singletonMap("_meta", Collections.singletonMap(HARVESTED, latest))),
+        RequestOptions.DEFAULT);
+    log.info("Product refs index " + target + " brought up to date with "
+        + (this.written.get() - before) + " updates in " + (System.currentTimeMillis() - begin)
+        + " ms");
+  }
+
+  /** Add the collection of every product of the registry-refs pages query finds to target. */
+  private void add(RestHighLevelClient client, String target, QueryBuilder query)
+      throws IOException {
+    BulkRequest bulk = new BulkRequest();
+    HitIterator pages = new HitIterator(PAGE_SIZE, client,
+        new SearchRequest().indices(this.connection.getRegistryRefIndex())
+            .source(new SearchSourceBuilder().query(query).fetchSource(
+                new String[] {"collection_lid", "collection_lidvid", "product_lidvid"}, null)),
+        HitIterator.REGISTRY_REFS_CURSOR);
+    for (Map<String, Object> page : pages) {
+      Map<String, Object> params = new HashMap<String, Object>();
+      Map<String, Object> upsert = new HashMap<String, Object>();
+
+      params.put("lid", first(page.get("collection_lid")));
+      params.put("lidvid", first(page.get("collection_lidvid")));
+      upsert.put("collection_lid", Collections.singletonList(params.get("lid")));
+      upsert.put("collection_lidvid", Collections.singletonList(params.get("lidvid")));
+      for (Object product : page.get("product_lidvid") instanceof List
+          ? (List<?>) page.get("product_lidvid")
+          : Collections.singletonList(page.get("product_lidvid"))) {
+        if (product == null)
+          continue;
+        bulk.add(new UpdateRequest(target, String.valueOf(product))
+            .script(new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, ADD, params))
+            .upsert(upsert).retryOnConflict(3));
+        if (BULK_SIZE <= bulk.numberOfActions())
+          bulk = this.send(client, bulk);
+      }
+    }
+    if (0 < bulk.numberOfActions())
+      this.send(client, bulk);
+  }
+
+  private BulkRequest send(RestHighLevelClient client, BulkRequest bulk) throws IOException {
+    BulkResponse response = client.bulk(bulk, RequestOptions.DEFAULT);
+
+    if (response.hasFailures())
+      throw new IOException(response.buildFailureMessage());
+    this.written.addAndGet(bulk.numberOfActions());
+    return new BulkRequest();
+  }
+
+  /**
+   * @return the LIDs of the collections that have lidvid as a member, null when the index cannot be
+   *         used
+   */
+  static List<String> parents(ConnectionContext connection, String lidvid) throws IOException {
+    String index = current;
+    List<String> lids = new ArrayList<String>();
+
+    if (index == null)
+      return null;
+
+    GetResponse response = connection.getRestHighLevelClient().get(
+        new GetRequest(index, lidvid).fetchSourceContext(
+            new FetchSourceContext(true, new String[] {"collection_lid"}, null)),
+        RequestOptions.DEFAULT);
+    if (response.isExists() && response.getSource().get("collection_lid") instanceof List)
+      for (Object lid : (List<?>) response.getSource().get("collection_lid"))
+        lids.add(String.valueOf(lid));
+    return lids;
+  }
+}
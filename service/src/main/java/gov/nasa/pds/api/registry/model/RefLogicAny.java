@@ -35,7 +35,7 @@ class RefLogicAny implements ReferencingLogic {
     PdsProductIdentifier productIdentifier = LidVidUtils.resolve(input.getIdentifier(),
         ProductVersionSelector.TYPED, context, RequestBuildContextFactory.empty());
     return ReferencingLogicTransmuter.getByProductClass(QuickSearch.getValue(
-        context.getConnection(), input.getSelector() == ProductVersionSelector.LATEST,
+        context.getConnection(), input, input.getSelector() == ProductVersionSelector.LATEST,
         productIdentifier != null ? productIdentifier.toString() : "", "product_class"));
   }
 
@@ -49,8 +49,22 @@ class RefLogicBundle extends RefLogicAny implements ReferencingLogic {
   static Pagination<String> children(ControlContext control, ProductVersionSelector selection,
       LidvidsContext uid) throws ApplicationTypeException, IOException, LidVidNotFoundException {
     log.info("Find children of a bundle");
-    return selection == ProductVersionSelector.ALL ? getAllBundleCollectionLidVids(uid, control)
-        : getBundleCollectionLidVids(uid, control);
+    List<String> members =
+        MembershipCache.get(MembershipCache.Edge.BUNDLE_CHILDREN, selection, uid.getLidVid());
+    PaginationLidvidBuilder lidvids = new PaginationLidvidBuilder(uid);
+
+    if (members == null) {
+      long walked = MembershipCache.generation();
+      LidvidsContext all = new Unlimited(uid.getLidVid());
+
+      members = (selection == ProductVersionSelector.ALL
+          ? getAllBundleCollectionLidVids(all, control)
+          : getBundleCollectionLidVids(all, control)).page();
+      MembershipCache.put(MembershipCache.Edge.BUNDLE_CHILDREN, selection, uid.getLidVid(),
+          members, walked);
+    }
+    lidvids.addAll(members);
+    return lidvids;
   }
 
   /**
@@ -168,15 +182,15 @@ class RefLogicBundle extends RefLogicAny implements ReferencingLogic {
         lidStrings.stream().map(PdsProductIdentifier::fromString).collect(Collectors.toList());
     RequestBuildContext reqContext = RequestBuildContextFactory.given(true, "lid",
         ReferencingLogicTransmuter.Collection.impl().constraints());
+    Map<String, PdsLidVid> latestLidVids =
+        LidVidUtils.getLatestLidVidsByLids(ctlContext, reqContext, lidStrings);
     for (PdsProductIdentifier id : productIdentifiers) {
-      try {
-        PdsLidVid latestLidVid =
-            LidVidUtils.getLatestLidVidByLid(ctlContext, reqContext, id.getLid().toString());
+      PdsLidVid latestLidVid = latestLidVids.get(id.getLid().toString());
+      if (latestLidVid != null)
         lidvids.add(latestLidVid.toString());
-      } catch (LidVidNotFoundException e) {
+      else
         log.warn("LID is referenced but is in non-findable archive-status or does not exist in db: "
-            + e.toString());
-      }
+            + id.getLid().toString());
     }
 
     return lidvids;
@@ -186,8 +200,10 @@ class RefLogicBundle extends RefLogicAny implements ReferencingLogic {
       LidvidsContext uid) throws ApplicationTypeException, IOException, LidVidNotFoundException {
     log.info("Find grandchildren of a bundle");
     PaginationLidvidBuilder ids = new PaginationLidvidBuilder(uid);
-    for (String cid : getBundleCollectionLidVids(new Unlimited(uid.getLidVid()), control).page()) {
-      ids.addAll(RefLogicCollection.children(control, selection, new Unlimited(cid)).page());
+    for (List<String> children : RefLogicFanOut.map(
+        children(control, ProductVersionSelector.LATEST, new Unlimited(uid.getLidVid())).page(),
+        (cid) -> RefLogicCollection.children(control, selection, new Unlimited(cid)).page())) {
+      ids.addAll(children);
     }
     return ids;
   }
@@ -23,6 +23,10 @@ import gov.nasa.pds.api.registry.model.identifiers.PdsLid;
 import gov.nasa.pds.api.registry.model.identifiers.PdsLidVid;
 import gov.nasa.pds.api.registry.model.identifiers.PdsProductIdentifier;
 import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.metrics.ValueCount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +37,7 @@ import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
 import gov.nasa.pds.api.registry.exceptions.MembershipException;
 import gov.nasa.pds.api.registry.exceptions.UnknownGroupNameException;
 import gov.nasa.pds.api.registry.search.HitIterator;
+import gov.nasa.pds.api.registry.search.MultiSearch;
 import gov.nasa.pds.api.registry.search.RequestBuildContextFactory;
 import gov.nasa.pds.api.registry.search.RequestConstructionContextFactory;
 import gov.nasa.pds.api.registry.search.SearchRequestFactory;
@@ -52,24 +57,54 @@ class RefLogicCollection extends RefLogicAny implements ReferencingLogic {
   static Pagination<String> children(ControlContext control, ProductVersionSelector selection,
       LidvidsContext uid) throws IOException, LidVidNotFoundException {
     log.info("Find children of a collection -- both all and latest");
-    return selection == ProductVersionSelector.ALL ? RefLogicCollection.childrenAll(control, uid)
-        : RefLogicCollection.childrenLatest(control, uid);
+    List<String> members =
+        MembershipCache.get(MembershipCache.Edge.COLLECTION_CHILDREN, selection, uid.getLidVid());
+
+    if (members != null) {
+      PaginationLidvidBuilder productLidvids = new PaginationLidvidBuilder(uid);
+      productLidvids.addAll(members);
+      return productLidvids;
+    }
+
+    MembershipCache.Walk walk = (bounds) -> selection == ProductVersionSelector.ALL
+        ? RefLogicCollection.childrenAll(control, bounds)
+        : RefLogicCollection.childrenLatest(control, bounds);
+    long walked = MembershipCache.generation();
+    Pagination<String> productLidvids = walk.members(uid);
+    // the walk stops once the page is full so the whole list comes with it only when it is short
+    if (!productLidvids.totalIsLowerBound() && productLidvids.size() == productLidvids.total())
+      MembershipCache.put(MembershipCache.Edge.COLLECTION_CHILDREN, selection, uid.getLidVid(),
+          productLidvids.page(), walked);
+    else
+      MembershipCache.fill(MembershipCache.Edge.COLLECTION_CHILDREN, selection, uid.getLidVid(),
+          walk);
+    return productLidvids;
   }
 
   private static Pagination<String> childrenAll(ControlContext control, LidvidsContext uid)
       throws IOException, LidVidNotFoundException {
     PaginationLidvidBuilder productLidvids = new PaginationLidvidBuilder(uid);
 
-    for (final Map<String, Object> kvp : new HitIterator(
-        control.getConnection().getRestHighLevelClient(),
+    HitIterator pages = new HitIterator(control.getConnection().getRestHighLevelClient(),
         new SearchRequestFactory(
             RequestConstructionContextFactory.given("collection_lidvid", uid.getLidVid(), true),
             control.getConnection()).build(RequestBuildContextFactory.given(false, "product_lid"),
-                control.getConnection().getRegistryRefIndex()))) {
-      productLidvids.addAll(LidVidUtils.getAllLidVidsByLids(control,
+                control.getConnection().getRegistryRefIndex()),
+        HitIterator.REGISTRY_REFS_CURSOR);
+
+    for (final Map<String, Object> kvp : pages) {
+      List<String> lidvids = LidVidUtils.getAllLidVidsByLids(control,
           RequestBuildContextFactory.given(false, "lidvid",
               ReferencingLogicTransmuter.Product.impl().constraints()),
-          productLidvids.convert(kvp.get("product_lid"))));
+          productLidvids.convert(kvp.get("product_lid")));
+
+      productLidvids.addAll(lidvids);
+      // counting every version of every product is as expensive as listing them
+      if (productLidvids.isFull()) {
+        if (pages.hasNext())
+          productLidvids.stop();
+        break;
+      }
     }
     return productLidvids;
   }
@@ -86,21 +121,63 @@ class RefLogicCollection extends RefLogicAny implements ReferencingLogic {
         new SearchRequestFactory(requestConstructionContext, control.getConnection())
             .build(requestBuildContext, registryRefIndex);
 
-    HitIterator pagesOfResults =
-        new HitIterator(control.getConnection().getRestHighLevelClient(), searchRequest);
+    HitIterator pagesOfResults = new HitIterator(control.getConnection().getRestHighLevelClient(),
+        searchRequest, HitIterator.REGISTRY_REFS_CURSOR);
 
     for (final Map<String, Object> page : pagesOfResults) {
       // Every "hit" is a page containing n lidvids, where n is presumably determined by OpenSearch
       // configuration
-      Object collectionOfLidvids = page.get("product_lidvid");
-      productLidvids.add(collectionOfLidvids);
-    }
+      List<String> lidvids = productLidvids.convert(page.get("product_lidvid"));
 
+      productLidvids.addAll(lidvids);
+      if (productLidvids.isFull()) {
+        productLidvids.setTotal(RefLogicCollection.countReferences(control,
+            requestConstructionContext, requestBuildContext, registryRefIndex));
+        break;
+      }
+    }
     return productLidvids;
   }
 
+  /**
+   * Count the product_lidvid values of every registry-refs page of a collection without fetching
+   * them.
+   */
+  private static int countReferences(ControlContext control,
+      RequestConstructionContext requestConstructionContext,
+      RequestBuildContext requestBuildContext, String registryRefIndex) throws IOException {
+    SearchRequest searchRequest =
+        new SearchRequestFactory(requestConstructionContext, control.getConnection())
+            .build(requestBuildContext, registryRefIndex);
+
+    searchRequest.source().size(0);
+    searchRequest.source()
+        .aggregation(AggregationBuilders.count("references").field("product_lidvid"));
+    ValueCount references = control.getConnection().getRestHighLevelClient()
+        .search(searchRequest, RequestOptions.DEFAULT).getAggregations().get("references");
+    return (int) references.getValue();
+  }
+
   static Pagination<String> parents(ControlContext control, ProductVersionSelector selection,
       LidvidsContext uid) throws IOException, LidVidNotFoundException {
+    List<String> members =
+        MembershipCache.get(MembershipCache.Edge.COLLECTION_PARENTS, selection, uid.getLidVid());
+    PaginationLidvidBuilder bundleLidvids = new PaginationLidvidBuilder(uid);
+
+    if (members == null) {
+      long walked = MembershipCache.generation();
+      members = RefLogicCollection.allParents(control, selection, new Unlimited(uid.getLidVid()))
+          .page();
+      MembershipCache.put(MembershipCache.Edge.COLLECTION_PARENTS, selection, uid.getLidVid(),
+          members, walked);
+    }
+    bundleLidvids.addAll(members);
+    return bundleLidvids;
+  }
+
+  private static Pagination<String> allParents(ControlContext control,
+      ProductVersionSelector selection, LidvidsContext uid)
+      throws IOException, LidVidNotFoundException {
     // TODO: Fully convert this function's internals (and eventually, interface) to use
     // PdsProductIdentifier classes instead of strings
     List<String> keys = Arrays.asList("ref_lid_collection", "ref_lid_collection_secondary",
@@ -113,15 +190,26 @@ class RefLogicCollection extends RefLogicAny implements ReferencingLogic {
     log.info("Find parents of a collection -- both all and latest");
     log.info("Find parents of collection: " + uid.getLidVid() + "  --- "
         + productIdentifier.getLid().toString());
+    // the first page of every key is fetched together and only long lists page any further
+    List<SearchRequest> requests = new ArrayList<SearchRequest>();
+    MultiSearch batch = new MultiSearch(control.getConnection());
     for (String key : keys) {
-      for (final Map<String, Object> kvp : new HitIterator(
-          control.getConnection().getRestHighLevelClient(),
+      SearchRequest request = HitIterator.prepare(
           new SearchRequestFactory(RequestConstructionContextFactory.given(key,
               productIdentifier.getLid().toString(), true), control.getConnection())
                   .build(
                       RequestBuildContextFactory.given(true, "lid",
                           ReferencingLogicTransmuter.Bundle.impl().constraints()),
-                      control.getConnection().getRegistryIndex()))) {
+                      control.getConnection().getRegistryIndex()),
+          500, HitIterator.REGISTRY_CURSOR);
+      requests.add(request);
+      batch.add(request);
+    }
+    List<SearchResponse> firstPages = batch.execute();
+    for (int index = 0; index < requests.size(); index++) {
+      for (final Map<String, Object> kvp : new HitIterator(
+          control.getConnection().getRestHighLevelClient(), requests.get(index),
+          firstPages.get(index).getHits())) {
         lids.addAll(bundleLidvids.convert(kvp.get("lid")));
       }
     }
@@ -135,17 +223,16 @@ class RefLogicCollection extends RefLogicAny implements ReferencingLogic {
       bundleLidvids.addAll(LidVidUtils.getAllLidVidsByLids(control,
           RequestBuildContextFactory.empty(), sortedLidStrings));
     } else {
-      RequestBuildContext reqContext = RequestBuildContextFactory.empty();
+      Map<String, PdsLidVid> latestLidvids = LidVidUtils.getLatestLidVidsByLids(control,
+          RequestBuildContextFactory.empty(), sortedLidStrings);
       for (PdsProductIdentifier lid : sortedLids) {
-        try {
-          PdsLidVid latestLidvid =
-              LidVidUtils.getLatestLidVidByLid(control, reqContext, lid.getLid().toString());
+        PdsLidVid latestLidvid = latestLidvids.get(lid.getLid().toString());
+        if (latestLidvid != null)
           bundleLidvids.add(latestLidvid.toString());
-        } catch (LidVidNotFoundException e) {
+        else
           log.warn(
               "LID is referenced but is in non-findable archive-status or does not exist in db: "
-                  + e.toString());
-        }
+                  + lid.getLid().toString());
       }
     }
 
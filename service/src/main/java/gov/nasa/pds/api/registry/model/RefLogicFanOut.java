@@ -0,0 +1,95 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
+import gov.nasa.pds.api.registry.search.RequestMetrics;
+
+/**
+ * Runs the per-node walks of a two step traversal (grandchildren, grandparents) concurrently on a
+ * bounded pool shared by all requests. The pool size is referencing.parallelism where 1 (or less)
+ * keeps the walks sequential on the calling thread.
+ *
+ * The results are returned in the order of the given nodes no matter what order the walks finish
+ * so that pagination over the merged result stays deterministic.
+ */
+@Component
+class RefLogicFanOut {
+  private static final Logger log = LoggerFactory.getLogger(RefLogicFanOut.class);
+
+  @Value("${referencing.parallelism:8}")
+  private int propParallelism;
+  private static ExecutorService executor = null;
+
+  @FunctionalInterface
+  interface Walk {
+    List<String> apply(String lidvid) throws IOException, LidVidNotFoundException;
+  }
+
+  @PostConstruct
+  public void init() {
+    if (1 < this.propParallelism) {
+      AtomicInteger count = new AtomicInteger();
+      executor = Executors.newFixedThreadPool(this.propParallelism, (runnable) -> {
+        Thread thread = new Thread(runnable, "reflogic-fanout-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      log.info("Two step traversals fan out on " + this.propParallelism + " threads");
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null)
+      executor.shutdownNow();
+    executor = null;
+  }
+
+  static List<List<String>> map(List<String> lidvids, Walk walk)
+      throws IOException, LidVidNotFoundException {
+    List<List<String>> results = new ArrayList<List<String>>(lidvids.size());
+
+    if (executor == null || lidvids.size() < 2) {
+      for (String lidvid : lidvids)
+        results.add(walk.apply(lidvid));
+    } else {
+      List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>(lidvids.size());
+
+      for (String lidvid : lidvids)
+        futures.add(executor.submit(RequestMetrics.propagate(() -> walk.apply(lidvid))));
+      try {
+        for (Future<List<String>> future : futures)
+          results.add(future.get());
+      } catch (ExecutionException ee) {
+        if (ee.getCause() instanceof IOException)
+          throw (IOException) ee.getCause();
+        if (ee.getCause() instanceof LidVidNotFoundException)
+          throw (LidVidNotFoundException) ee.getCause();
+        throw new IOException("Traversal failed", ee.getCause());
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Traversal was interrupted", ie);
+      } finally {
+        for (Future<List<String>> future : futures)
+          future.cancel(true);
+      }
+    }
+    return results;
+  }
+}
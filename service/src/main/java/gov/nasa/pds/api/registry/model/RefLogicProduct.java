@@ -11,7 +11,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import gov.nasa.pds.api.registry.RequestBuildContext;
 import gov.nasa.pds.api.registry.model.identifiers.LidVidUtils;
 import gov.nasa.pds.api.registry.model.identifiers.PdsLid;
 import gov.nasa.pds.api.registry.model.identifiers.PdsLidVid;
@@ -49,10 +48,11 @@ class RefLogicProduct extends RefLogicAny implements ReferencingLogic {
     List<String> parents = RefLogicProduct
         .parents(control, ProductVersionSelector.LATEST, new Unlimited(uid.getLidVid())).page();
     PaginationLidvidBuilder grandparents = new PaginationLidvidBuilder(uid);
-    for (String parent : parents) {
+    for (List<String> bundles : RefLogicFanOut.map(parents, (parent) -> {
       log.info("Find all the parents of collection: " + parent);
-      grandparents
-          .addAll(RefLogicCollection.parents(control, selection, new Unlimited(parent)).page());
+      return RefLogicCollection.parents(control, selection, new Unlimited(parent)).page();
+    })) {
+      grandparents.addAll(bundles);
       log.info("Find grandparents size: " + String.valueOf(grandparents.size()));
       for (String gp : grandparents.page()) {
         log.info("   grandparent: " + gp);
@@ -63,19 +63,43 @@ class RefLogicProduct extends RefLogicAny implements ReferencingLogic {
 
   static Pagination<String> parents(ControlContext control, ProductVersionSelector selection,
       LidvidsContext uid) throws IOException, LidVidNotFoundException {
+    List<String> members =
+        MembershipCache.get(MembershipCache.Edge.PRODUCT_PARENTS, selection, uid.getLidVid());
+    PaginationLidvidBuilder parents = new PaginationLidvidBuilder(uid);
+
+    if (members == null) {
+      long walked = MembershipCache.generation();
+      members = RefLogicProduct.allParents(control, selection, new Unlimited(uid.getLidVid()))
+          .page();
+      MembershipCache.put(MembershipCache.Edge.PRODUCT_PARENTS, selection, uid.getLidVid(),
+          members, walked);
+    }
+    parents.addAll(members);
+    return parents;
+  }
+
+  private static Pagination<String> allParents(ControlContext control,
+      ProductVersionSelector selection, LidvidsContext uid)
+      throws IOException, LidVidNotFoundException {
     List<String> sortedLidStrings;
     PaginationLidvidBuilder parents = new PaginationLidvidBuilder(uid);
     Set<String> lids = new HashSet<String>();
 
     log.info("Find the parents of a product -- both all and latest");
-    for (final Map<String, Object> kvp : new HitIterator(
-        control.getConnection().getRestHighLevelClient(),
-        new SearchRequestFactory(
-            RequestConstructionContextFactory.given("product_lidvid", uid.getLidVid(), true),
-            control.getConnection()).build(RequestBuildContextFactory.given(true, "collection_lid"),
-                control.getConnection().getRegistryRefIndex()))) {
-      lids.addAll(parents.convert(kvp.get("collection_lid")));
-    }
+    List<String> indexed = ProductRefIndex.parents(control.getConnection(), uid.getLidVid());
+    if (indexed != null)
+      lids.addAll(indexed);
+    else
+      for (final Map<String, Object> kvp : new HitIterator(
+          control.getConnection().getRestHighLevelClient(),
+          new SearchRequestFactory(
+              RequestConstructionContextFactory.given("product_lidvid", uid.getLidVid(), true),
+              control.getConnection()).build(
+                  RequestBuildContextFactory.given(true, "collection_lid"),
+                  control.getConnection().getRegistryRefIndex()),
+          HitIterator.REGISTRY_REFS_CURSOR)) {
+        lids.addAll(parents.convert(kvp.get("collection_lid")));
+      }
     sortedLidStrings = new ArrayList<>(lids);
     Collections.sort(sortedLidStrings);
     List<PdsProductIdentifier> sortedLids =
@@ -85,17 +109,16 @@ class RefLogicProduct extends RefLogicAny implements ReferencingLogic {
       parents.addAll(LidVidUtils.getAllLidVidsByLids(control, RequestBuildContextFactory.empty(),
           sortedLidStrings));
     } else {
-      RequestBuildContext reqContext = RequestBuildContextFactory.empty();
+      Map<String, PdsLidVid> latestLidvids = LidVidUtils.getLatestLidVidsByLids(control,
+          RequestBuildContextFactory.empty(), sortedLidStrings);
       for (PdsProductIdentifier id : sortedLids) {
-        try {
-          PdsLidVid latestLidvid =
-              LidVidUtils.getLatestLidVidByLid(control, reqContext, id.getLid().toString());
+        PdsLidVid latestLidvid = latestLidvids.get(id.getLid().toString());
+        if (latestLidvid != null)
           parents.add(latestLidvid.toString());
-        } catch (LidVidNotFoundException e) {
+        else
           log.warn(
               "LID is referenced but is in non-findable archive-status or does not exist in db: "
-                  + e.toString());
-        }
+                  + id.getLid().toString());
       }
     }
 
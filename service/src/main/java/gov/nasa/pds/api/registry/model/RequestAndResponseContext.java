@@ -6,13 +6,19 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.ibm.icu.util.StringTokenizer;
+import gov.nasa.pds.api.registry.ConnectionContext;
 import gov.nasa.pds.api.registry.ControlContext;
 import gov.nasa.pds.api.registry.GroupConstraint;
 import gov.nasa.pds.api.registry.RequestBuildContext;
@@ -26,17 +32,31 @@ import gov.nasa.pds.api.registry.model.identifiers.LidVidUtils;
 import gov.nasa.pds.api.registry.model.identifiers.PdsLidVid;
 import gov.nasa.pds.api.registry.model.identifiers.PdsProductIdentifier;
 import gov.nasa.pds.api.registry.search.HitIterator;
+import gov.nasa.pds.api.registry.search.QuickSearch;
 import gov.nasa.pds.api.registry.search.RequestBuildContextFactory;
 import gov.nasa.pds.api.registry.search.RequestConstructionContextFactory;
+import gov.nasa.pds.api.registry.search.RequestMetrics;
 import gov.nasa.pds.api.registry.search.SearchRequestFactory;
+import gov.nasa.pds.api.registry.search.VersionIndex;
 import gov.nasa.pds.model.Summary;
 
 
 public class RequestAndResponseContext implements RequestBuildContext, RequestConstructionContext {
   private static final Logger log = LoggerFactory.getLogger(RequestAndResponseContext.class);
+  // plural responses larger than a page, and all x-ndjson ones, are streamed page by page rather
+  // than held in memory
+  private static final int STREAM_PAGE_SIZE = 500;
+  private static final String NDJSON = "application/x-ndjson";
+  /**
+   * what a singular response is made of besides its lidvid, fetched with the product whatever the
+   * fields and memoized for the validators of the response
+   */
+  public static final String[] VALIDATORS =
+      {VersionIndex.HARVEST_TIME, Pds4ProductFactory.FLD_TRACK_META_ARCHIVE_STATUS};
 
   final private long begin_processing = System.currentTimeMillis();
   final private ControlContext controlContext;
+  final private UserContext userContext;
   final private String queryString;
   final private List<String> keywords;
   final private PdsProductIdentifier productIdentifier;
@@ -50,6 +70,7 @@ public class RequestAndResponseContext implements RequestBuildContext, RequestCo
   final private ProductVersionSelector selector;
   final private String format;
   final private Map<String, ProductBusinessLogic> formatters;
+  private boolean hitsLowerBound = false;
 
 
   static public RequestAndResponseContext buildRequestAndResponseContext(ControlContext connection, // webby
@@ -69,9 +90,15 @@ public class RequestAndResponseContext implements RequestBuildContext, RequestCo
         new SearchRequestFactory(RequestConstructionContextFactory.given(lidvids.page()),
             connection.getConnection()).build(response,
                 connection.getConnection().getRegistryIndex());
-    request.source().size(lidvids.size());
-    response.setResponse(connection.getConnection().getRestHighLevelClient()
-        .search(request, RequestOptions.DEFAULT).getHits(), null, lidvids.total());
+    response.hitsLowerBound = lidvids.totalIsLowerBound();
+    if (!response.streamed(lidvids.size())) {
+      request.source().size(lidvids.size());
+      response.setResponse(connection.getConnection().getRestHighLevelClient()
+          .search(request, RequestOptions.DEFAULT).getHits(), null, lidvids.total());
+    } else
+      response.setResponse(new HitIterator(STREAM_PAGE_SIZE,
+          connection.getConnection().getRestHighLevelClient(), request, 0, lidvids.size()),
+          lidvids.total());
     return response;
   }
 
@@ -118,12 +145,16 @@ public class RequestAndResponseContext implements RequestBuildContext, RequestCo
     formatters.put("application/kvp+json", new WyriwygBusinessObject());
     formatters.put("application/vnd.nasa.pds.pds4+json", new Pds4ProductBusinessObject(true));
     formatters.put("application/vnd.nasa.pds.pds4+xml", new Pds4ProductBusinessObject(false));
+    formatters.put(NDJSON, new PdsProductBusinessObject());
     formatters.put("application/xml", new PdsProductBusinessObject());
     formatters.put("text/csv", new WyriwygBusinessObject());
     formatters.put("text/html", new PdsProductBusinessObject());
     formatters.put("text/xml", new PdsProductBusinessObject());
 
+    for (ProductBusinessLogic formatter : formatters.values())
+      formatter.setBaseURL(parameters.getBaseURL());
     this.controlContext = controlContext;
+    this.userContext = parameters;
     this.formatters = formatters;
     this.format = this.find_match(parameters.getAccept());
     this.queryString = parameters.getQuery();
@@ -166,6 +197,7 @@ public class RequestAndResponseContext implements RequestBuildContext, RequestCo
     return this.fields;
   }
 
+  @Override
   public final List<String> getSort() {
     return this.sort;
   }
@@ -298,17 +330,26 @@ public class RequestAndResponseContext implements RequestBuildContext, RequestCo
 
   }
 
-  public void setResponse(HitIterator hits, int real_total) {
+  /**
+   * The summary properties of a streamed response are those of the first page, as they are of the
+   * page of a response that is not streamed, since only that page is known when it is written.
+   */
+  public void setResponse(HitIterator hits, int real_total) throws IOException {
     Summary summary = new Summary();
     summary.setQ(this.getQueryString());
     summary.setStart(this.getStart());
     summary.setLimit(this.getLimit());
     summary.setSort(this.getSort());
-    summary.setHits(this.formatters.get(this.format).setResponse(hits, summary, this.fields));
-    summary.setProperties(new ArrayList<String>());
+    long begin = System.nanoTime();
+    int count = this.formatters.get(this.format).setResponse(hits, summary, this.fields);
+    RequestMetrics.conversion(System.nanoTime() - begin);
+    // left out of the summary when the walk does not count the hits, as for an export
+    summary.setHits(0 <= count ? count : null);
 
     if (0 < real_total)
       summary.setHits(real_total);
+    if (this.hitsLowerBound)
+      summary.setHitsLowerBound(true);
 
     summary.setTook((int) (System.currentTimeMillis() - this.begin_processing));
   }
@@ -330,44 +371,132 @@ public class RequestAndResponseContext implements RequestBuildContext, RequestCo
       summary.setLimit(this.getLimit());
       summary.setSort(this.getSort());
       summary.setHits(total_hits);
+      if (this.hitsLowerBound)
+        summary.setHitsLowerBound(true);
 
       if (uniqueProperties != null)
         summary.setProperties(uniqueProperties);
+      long begin = System.nanoTime();
       this.formatters.get(this.format).setResponse(hits, summary, this.fields);
+      RequestMetrics.conversion(System.nanoTime() - begin);
 
       summary.setTook((int) (System.currentTimeMillis() - this.begin_processing));
     }
   }
 
-  public void setResponse(RestHighLevelClient client, SearchRequest request) throws IOException {
-    if (this.isSingular()) {
-      SearchHits hits;
-
-      request.source().size(2);
-      request.source().from(0);
-      hits = client.search(request, RequestOptions.DEFAULT).getHits();
-
-      if (hits != null && hits.getTotalHits() != null) {
-        long hitCount = hits.getTotalHits().value;
-        if (hitCount == 1L) {
-          this.formatters.get(this.format).setResponse(hits.getAt(0), this.fields);
-        } else if (hitCount > 1L) {
-          String basicErrMsg =
-              "Got " + hitCount + " hits for a query which should have returned a singular result. "
-                  + "Is provenance metadata present and up-to-date?";
-          log.error(basicErrMsg + " Query was " + request.source().query().toString());
-          throw new IOException(basicErrMsg);
-        }
-      } else {
-        log.error(
-            "Registry returned unexpected response (could not parse hits count from response)");
-        throw new IOException(
-            "Registry returned unexpected response (could not parse hits count from response)");
+  private void setSingularResponse(SearchHits hits, SearchRequest request) throws IOException {
+    if (hits != null && hits.getTotalHits() != null) {
+      long hitCount = hits.getTotalHits().value;
+      if (hitCount == 1L) {
+        long begin = System.nanoTime();
+        this.formatters.get(this.format).setResponse(hits.getAt(0), this.fields);
+        RequestMetrics.conversion(System.nanoTime() - begin);
+        this.remember(hits.getAt(0));
+      } else if (hitCount > 1L) {
+        String basicErrMsg =
+            "Got " + hitCount + " hits for a query which should have returned a singular result. "
+                + "Is provenance metadata present and up-to-date?";
+        log.error(basicErrMsg + " Query was " + request.source().query().toString());
+        throw new IOException(basicErrMsg);
       }
     } else {
+      log.error(
+          "Registry returned unexpected response (could not parse hits count from response)");
+      throw new IOException(
+          "Registry returned unexpected response (could not parse hits count from response)");
+    }
+  }
+
+  /** Memoize the VALIDATORS of the product in the UserContext of the request. */
+  private void remember(SearchHit hit) {
+    DocumentField lidvid = hit.field("lidvid");
+    Map<String, Object> values = new HashMap<String, Object>();
+
+    for (String name : VALIDATORS)
+      values.put(name, hit.field(name) == null ? null : hit.field(name).getValues());
+    QuickSearch.remember(this.controlContext.getConnection(), this.userContext,
+        lidvid == null || lidvid.getValue() == null ? this.getProductIdentifierString()
+            : String.valueOf(lidvid.getValue()),
+        values);
+  }
+
+  private static void singular(SearchRequest request) {
+    request.source().size(2);
+    request.source().from(0);
+    // the fields API reads them from the whole _source, whatever of it the response is made of
+    request.source().fetchField("lidvid");
+    for (String name : VALIDATORS)
+      request.source().fetchField(name);
+  }
+
+  /**
+   * @return whether a plural response of count products is streamed: every x-ndjson one, so that
+   *         each line is converted and written as its hit is walked, and any other larger than a
+   *         page
+   */
+  private boolean streamed(int count) {
+    return STREAM_PAGE_SIZE < count || NDJSON.equals(this.format);
+  }
+
+  public void setResponse(RestHighLevelClient client, SearchRequest request) throws IOException {
+    if (this.isSingular()) {
+      RequestAndResponseContext.singular(request);
+      this.setSingularResponse(client.search(request, RequestOptions.DEFAULT).getHits(), request);
+    } else if (!this.streamed(this.getLimit())) {
       request.source().size(this.getLimit());
       request.source().from(this.getStart());
       this.setResponse(client.search(request, RequestOptions.DEFAULT).getHits());
+    } else {
+      HitIterator hits =
+          new HitIterator(STREAM_PAGE_SIZE, client, request, this.getStart(), this.getLimit());
+      this.setResponse(hits, (int) hits.getTotalHits());
+    }
+  }
+
+  /**
+   * Stream every hit of the request, whatever start and limit are, for an export. The hits are
+   * walked with search_after on the lidvid so that a page costs the same however deep into the
+   * result set it is, and they are not counted so the summary has no hits. The columns are the
+   * fields asked for or, without any, the properties of the first page of hits.
+   */
+  public void setExportResponse(RestHighLevelClient client, SearchRequest request)
+      throws IOException {
+    request.source().from(0);
+    HitIterator hits =
+        new HitIterator(STREAM_PAGE_SIZE, client, request, HitIterator.REGISTRY_CURSOR);
+    this.setResponse(hits, (int) hits.getTotalHits());
+  }
+
+  /**
+   * Non-blocking form of setResponse(RestHighLevelClient, SearchRequest). The hits are converted on
+   * executor, not on the IO thread of the client that completes the search. Streamed responses
+   * still fetch their first page on the calling thread and the rest while being written.
+   */
+  public CompletableFuture<Void> setResponseAsync(ConnectionContext connection,
+      SearchRequest request, Executor executor) {
+    if (this.isSingular()) {
+      RequestAndResponseContext.singular(request);
+      return connection.searchAsync(request).thenAcceptAsync((response) -> {
+        try {
+          this.setSingularResponse(response.getHits(), request);
+        } catch (IOException ioe) {
+          throw new CompletionException(ioe);
+        }
+      }, executor);
+    } else if (!this.streamed(this.getLimit())) {
+      request.source().size(this.getLimit());
+      request.source().from(this.getStart());
+      return connection.searchAsync(request)
+          .thenAcceptAsync((response) -> this.setResponse(response.getHits()), executor);
+    }
+
+    CompletableFuture<Void> future = new CompletableFuture<Void>();
+    try {
+      this.setResponse(connection.getRestHighLevelClient(), request);
+      future.complete(null);
+    } catch (IOException ioe) {
+      future.completeExceptionally(ioe);
     }
+    return future;
   }
 }
@@ -0,0 +1,112 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.util.AbstractSequentialList;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import org.opensearch.search.SearchHit;
+
+import gov.nasa.pds.api.registry.search.HitIterator;
+
+/**
+ * A one pass list over the hits of a HitIterator that converts each hit only when the serializer
+ * asks for it. This lets the view write a plural response while OpenSearch pages are still being
+ * fetched so that no more than one page is held in memory at any time.
+ *
+ * It is not RandomAccess which makes Jackson (and everyone else) walk it with an iterator.
+ *
+ * When the HitIterator cannot tell up front how many hits there are (a cursor walk) the list is
+ * walked until the hits run out; its size() is then Integer.MAX_VALUE, as for any list too large
+ * to count, and isEmpty() is false.
+ *
+ * A page that cannot be fetched while the response is written is thrown out of next() as the
+ * UncheckedIOException of the HitIterator, through the serializer and Spring, so that the container
+ * aborts the response it has already begun instead of ending it as if the hits had run out.
+ */
+class StreamedHitList<T> extends AbstractSequentialList<T> {
+  final private HitIterator hits;
+  final private Function<SearchHit, T> converter;
+  final private int size; // -1 when not known up front
+  private boolean consumed = false;
+
+  StreamedHitList(HitIterator hits, Function<Map<String, Object>, T> converter) {
+    this((hit) -> converter.apply(hit == null ? null : hit.getSourceAsMap()), hits);
+  }
+
+  /** for converters that read the hit themselves rather than its source as a Map */
+  static <T> StreamedHitList<T> ofHits(HitIterator hits, Function<SearchHit, T> converter) {
+    return new StreamedHitList<T>(converter, hits);
+  }
+
+  private StreamedHitList(Function<SearchHit, T> converter, HitIterator hits) {
+    this.hits = hits;
+    this.converter = converter;
+    this.size = hits.getExpectedCount();
+  }
+
+  @Override
+  public ListIterator<T> listIterator(int index) {
+    if (this.consumed || index != 0)
+      throw new IllegalStateException("streamed hits can be walked only once from the beginning");
+
+    this.consumed = true;
+    return new ListIterator<T>() {
+      private int at = 0;
+
+      @Override
+      public boolean hasNext() {
+        return (size < 0 || at < size) && hits.hasNext();
+      }
+
+      @Override
+      public T next() {
+        if (!this.hasNext())
+          throw new NoSuchElementException();
+        at++;
+        return converter.apply(hits.nextHit()); // UncheckedIOException when its page fails
+      }
+
+      @Override
+      public boolean hasPrevious() {
+        return false;
+      }
+
+      @Override
+      public T previous() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int nextIndex() {
+        return at;
+      }
+
+      @Override
+      public int previousIndex() {
+        return at - 1;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void set(T e) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void add(T e) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    return this.size < 0 ? Integer.MAX_VALUE : this.size;
+  }
+}
@@ -1,10 +1,9 @@
 package gov.nasa.pds.api.registry.model;
 
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 import org.opensearch.search.SearchHit;
@@ -12,11 +11,9 @@ import org.opensearch.search.SearchHits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import gov.nasa.pds.api.registry.exceptions.UnsupportedSearchProperty;
 import gov.nasa.pds.api.registry.search.HitIterator;
 import gov.nasa.pds.model.Summary;
 import gov.nasa.pds.model.WyriwygProduct;
-import gov.nasa.pds.model.WyriwygProductKeyValuePair;
 import gov.nasa.pds.model.WyriwygProducts;
 
 public class WyriwygBusinessObject extends ProductBusinessLogicImpl {
@@ -52,75 +49,48 @@ public class WyriwygBusinessObject extends ProductBusinessLogicImpl {
 
   @Override
   public void setResponse(SearchHit hit, List<String> fields) {
-    WyriwygProduct product = new WyriwygProduct();
-    for (Entry<String, Object> pair : hit.getSourceAsMap().entrySet()) {
-      WyriwygProductKeyValuePair kvp = new WyriwygProductKeyValuePair();
+    this.product = new WyriwygSource(hit.getSourceRef());
+  }
+
+  private static Set<String> properties(Iterable<SearchHit> page, List<String> fields) {
+    Set<String> uniqueProperties = new TreeSet<String>();
+
+    for (SearchHit hit : page) {
+      if (fields != null && 0 < fields.size()) {
+        uniqueProperties.addAll(fields);
+        break;
+      }
       try {
-        kvp.setKey(SearchUtil.openPropertyToJsonProperty(pair.getKey()));
-        kvp.setValue(String.valueOf(pair.getValue()));
-        product.addKeyValuePairsItem(kvp);
-      } catch (UnsupportedSearchProperty e) {
-        log.warn("openSearch property " + pair.getKey() + " is not supported, ignored");
+        WyriwygSource.fieldNames(hit.getSourceRef(), uniqueProperties);
+      } catch (IOException e) {
+        log.warn("Could not read the source of hit " + hit.getId(), e);
       }
     }
-    this.product = product;
+    return uniqueProperties;
   }
 
   @Override
   public int setResponse(HitIterator hits, Summary summary, List<String> fields) {
-    Set<String> uniqueProperties = new TreeSet<String>();
     WyriwygProducts products = new WyriwygProducts();
 
-    for (Map<String, Object> kvps : hits) {
-      uniqueProperties
-          .addAll(ProductBusinessObject.getFilteredProperties(kvps, fields, null).keySet());
-
-      WyriwygProduct product = new WyriwygProduct();
-      for (Entry<String, Object> pair : kvps.entrySet()) {
-        WyriwygProductKeyValuePair kvp = new WyriwygProductKeyValuePair();
-        try {
-          kvp.setKey(SearchUtil.openPropertyToJsonProperty(pair.getKey()));
-          kvp.setValue(String.valueOf(pair.getValue()));
-          product.addKeyValuePairsItem(kvp);
-        } catch (UnsupportedSearchProperty e) {
-          log.warn("openSearch property " + pair.getKey() + " is not supported, ignored");
-        }
-      }
-      products.addDataItem(product);
-
-    }
-    summary.setProperties(new ArrayList<String>(uniqueProperties));
+    products.setData(StreamedHitList.ofHits(hits,
+        (hit) -> (WyriwygProduct) new WyriwygSource(hit.getSourceRef())));
+    // the hits past the first page are read only once the summary is written
+    summary.setProperties(new ArrayList<String>(
+        properties(hits.getPage() == null ? List.of() : hits.getPage(), fields)));
     products.setSummary(summary);
     this.products = products;
-    return products.getData().size();
+    return hits.getExpectedCount(); // not the size of the list, MAX_VALUE when not counted
   }
 
   @Override
   public int setResponse(SearchHits hits, Summary summary, List<String> fields) {
-
-    Set<String> uniqueProperties = new TreeSet<String>();
     WyriwygProducts products = new WyriwygProducts();
 
-    for (SearchHit hit : hits.getHits()) {
-      Map<String, Object> kvps = hit.getSourceAsMap();
-      uniqueProperties
-          .addAll(ProductBusinessObject.getFilteredProperties(kvps, fields, null).keySet());
-
-      WyriwygProduct product = new WyriwygProduct();
-      for (Entry<String, Object> pair : kvps.entrySet()) {
-        WyriwygProductKeyValuePair kvp = new WyriwygProductKeyValuePair();
-        try {
-          kvp.setKey(SearchUtil.openPropertyToJsonProperty(pair.getKey()));
-          kvp.setValue(String.valueOf(pair.getValue()));
-          product.addKeyValuePairsItem(kvp);
-        } catch (UnsupportedSearchProperty e) {
-          log.warn("openSearch property " + pair.getKey() + " is not supported, ignored");
-        }
-      }
-      products.addDataItem(product);
-    }
+    for (SearchHit hit : hits.getHits())
+      products.addDataItem(new WyriwygSource(hit.getSourceRef()));
 
-    summary.setProperties(new ArrayList<String>(uniqueProperties));
+    summary.setProperties(new ArrayList<String>(properties(hits, fields)));
     products.setSummary(summary);
     this.products = products;
     return (int) (hits.getTotalHits().value);
@@ -0,0 +1,201 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.common.bytes.BytesReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import gov.nasa.pds.api.registry.exceptions.UnsupportedSearchProperty;
+import gov.nasa.pds.model.WyriwygProduct;
+import gov.nasa.pds.model.WyriwygProductKeyValuePair;
+
+/**
+ * A WyriwygProduct that is still the _source of its hit, as OpenSearch sent it.
+ *
+ * The kvp+json and csv serializers walk its fields with forEachField() which reads the source
+ * bytes with a streaming parser, so that no Map, no key value pair and no value String is built
+ * for each hit. The values read the same as String.valueOf() of what getSourceAsMap() would give
+ * except that the entries of nested objects are in the order of the source. Anybody else gets the
+ * key value pairs built on the first call to getKeyValuePairs().
+ *
+ * The fields are given in the order of the source, which is the order of the kvp+json entries,
+ * where they used to come in the unspecified order of the HashMap of getSourceAsMap(); the csv
+ * columns are sorted either way.
+ */
+public class WyriwygSource extends WyriwygProduct {
+  private static final Logger log = LoggerFactory.getLogger(WyriwygSource.class);
+  private static final JsonFactory factory = new JsonFactory();
+
+  // OpenSearch property names and their API names; the parser gives the same String instance for
+  // the same name so this is a cheap lookup, bounded since the names come from the index mapping
+  private static final int MAX_NAMES = 10000;
+  private static final Map<String, String> names = new ConcurrentHashMap<String, String>();
+
+  /** Receives the fields of a source; value is only valid until accept() returns. */
+  public interface FieldConsumer {
+    void accept(String key, char[] value, int length) throws IOException;
+  }
+
+  /** a growable char buffer the values are rendered into */
+  private static class Text {
+    private char[] chars = new char[256];
+    private int length = 0;
+
+    private void reserve(int count) {
+      if (this.chars.length < this.length + count)
+        this.chars =
+            Arrays.copyOf(this.chars, Math.max(2 * this.chars.length, this.length + count));
+    }
+
+    void append(char[] from, int offset, int count) {
+      this.reserve(count);
+      System.arraycopy(from, offset, this.chars, this.length, count);
+      this.length += count;
+    }
+
+    void append(String from) {
+      this.reserve(from.length());
+      from.getChars(0, from.length(), this.chars, this.length);
+      this.length += from.length();
+    }
+  }
+
+  final private BytesReference source;
+  private boolean materialized = false;
+
+  public WyriwygSource(BytesReference source) {
+    this.source = source;
+  }
+
+  private static JsonParser parser(BytesReference source) throws IOException {
+    BytesRef bytes = source.toBytesRef();
+    return factory.createParser(bytes.bytes, bytes.offset, bytes.length);
+  }
+
+  /** @return the API name of an OpenSearch property, null when it is not supported */
+  private static String apiName(String openProperty) {
+    String name = names.get(openProperty);
+
+    if (name == null) {
+      try {
+        name = SearchUtil.openPropertyToJsonProperty(openProperty);
+        if (names.size() < MAX_NAMES)
+          names.put(openProperty, name);
+      } catch (UnsupportedSearchProperty e) {
+        log.warn("openSearch property " + openProperty + " is not supported, ignored");
+      }
+    }
+    return name;
+  }
+
+  /** Add the API names of the fields of source to properties. */
+  public static void fieldNames(BytesReference source, Collection<String> properties)
+      throws IOException {
+    try (JsonParser parser = parser(source)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT)
+        return;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = apiName(parser.getCurrentName());
+
+        if (name != null)
+          properties.add(name);
+        parser.nextToken();
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /** Give each field of the source, with its API name, to consumer. */
+  public void forEachField(FieldConsumer consumer) throws IOException {
+    Text value = new Text();
+
+    try (JsonParser parser = parser(this.source)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT)
+        return;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String key = apiName(parser.getCurrentName());
+
+        parser.nextToken();
+        if (key == null) {
+          parser.skipChildren();
+          continue;
+        }
+        value.length = 0;
+        render(parser, value);
+        consumer.accept(key, value.chars, value.length);
+      }
+    }
+  }
+
+  // what String.valueOf() gives for the value XContent would have parsed
+  private static void render(JsonParser parser, Text to) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        to.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        break;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        to.append(String.valueOf(parser.getNumberValue()));
+        break;
+      case VALUE_TRUE:
+        to.append("true");
+        break;
+      case VALUE_FALSE:
+        to.append("false");
+        break;
+      case START_ARRAY:
+        to.append("[");
+        for (boolean first = true; parser.nextToken() != JsonToken.END_ARRAY; first = false) {
+          if (!first)
+            to.append(", ");
+          render(parser, to);
+        }
+        to.append("]");
+        break;
+      case START_OBJECT:
+        to.append("{");
+        for (boolean first = true; parser.nextToken() == JsonToken.FIELD_NAME; first = false) {
+          if (!first)
+            to.append(", ");
+          to.append(parser.getCurrentName());
+          to.append("=");
+          parser.nextToken();
+          render(parser, to);
+        }
+        to.append("}");
+        break;
+      default:
+        to.append("null");
+    }
+  }
+
+  @Override
+  public List<WyriwygProductKeyValuePair> getKeyValuePairs() {
+    if (!this.materialized) {
+      this.materialized = true;
+      try {
+        this.forEachField((key, value, length) -> {
+          WyriwygProductKeyValuePair kvp = new WyriwygProductKeyValuePair();
+          kvp.setKey(key);
+          kvp.setValue(new String(value, 0, length));
+          super.getKeyValuePairs().add(kvp);
+        });
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read the source of the hit", e);
+      }
+    }
+    return super.getKeyValuePairs();
+  }
+}
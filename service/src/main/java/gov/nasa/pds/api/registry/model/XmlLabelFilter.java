@@ -0,0 +1,205 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Copies an XML label while dropping its carriage returns and processing instructions (the
+ * &lt;?xml?&gt; declaration, &lt;?xml-model?&gt; and such) so that it can be embedded in another
+ * XML document. Comments and CDATA sections are copied as they are, "&lt;?" included. Leading and
+ * trailing whitespace are trimmed as well. It is done in a single pass over the bytes as they are
+ * written, which is safe for UTF-8 since all the bytes looked at are ASCII.
+ *
+ * close() ends the label but leaves the underlying stream open.
+ */
+public class XmlLabelFilter extends OutputStream {
+  private enum State {
+    TEXT, // copying
+    LESS, // seen '<', not known yet if it starts an instruction
+    INSTRUCTION, // inside <? ... ?>
+    QUESTION, // inside an instruction right after a '?'
+    BANG, // seen "<!", not known yet if it starts a comment or a CDATA section
+    COMMENT, // inside <!-- ... -->
+    CDATA // inside <![CDATA[ ... ]]>
+  }
+
+  final private OutputStream dest;
+  final private byte[] buffer = new byte[8192];
+  private int buffered = 0;
+  private byte[] spaces = new byte[64];
+  private int pendingSpaces = 0;
+  private boolean started = false;
+  private State state = State.TEXT;
+  private int closing = 0; // the '-' or ']' seen last in a comment or a CDATA section
+
+  public XmlLabelFilter(OutputStream dest) {
+    this.dest = dest;
+  }
+
+  private static boolean isWhitespace(int b) {
+    return b == ' ' || (0x09 <= b && b <= 0x0d) || (0x1c <= b && b <= 0x1f);
+  }
+
+  private void emit(int b) throws IOException {
+    if (isWhitespace(b)) {
+      if (this.started)
+        this.hold(b);
+      return;
+    }
+    this.started = true;
+    this.release();
+    this.put(b);
+  }
+
+  /** emit text that holds neither '\r' nor '<' */
+  private void emit(byte[] b, int from, int to) throws IOException {
+    int last = to - 1;
+
+    if (!this.started)
+      while (from < to && isWhitespace(b[from] & 0xff))
+        from++;
+    while (from <= last && isWhitespace(b[last] & 0xff))
+      last--;
+    if (from <= last) {
+      this.started = true;
+      this.release();
+      this.put(b, from, last + 1);
+      from = last + 1;
+    }
+    for (; from < to; from++)
+      this.hold(b[from]);
+  }
+
+  // whitespace is held back until something follows so that trailing whitespace can be dropped
+  private void hold(int b) {
+    if (this.pendingSpaces == this.spaces.length) {
+      byte[] grown = new byte[2 * this.spaces.length];
+      System.arraycopy(this.spaces, 0, grown, 0, this.pendingSpaces);
+      this.spaces = grown;
+    }
+    this.spaces[this.pendingSpaces++] = (byte) b;
+  }
+
+  private void release() throws IOException {
+    if (0 < this.pendingSpaces)
+      this.put(this.spaces, 0, this.pendingSpaces);
+    this.pendingSpaces = 0;
+  }
+
+  private void put(int b) throws IOException {
+    if (this.buffered == this.buffer.length) {
+      this.dest.write(this.buffer, 0, this.buffered);
+      this.buffered = 0;
+    }
+    this.buffer[this.buffered++] = (byte) b;
+  }
+
+  private void put(byte[] b, int from, int to) throws IOException {
+    if (this.buffer.length - this.buffered < to - from) {
+      this.dest.write(this.buffer, 0, this.buffered);
+      this.buffered = 0;
+      if (this.buffer.length < to - from) {
+        this.dest.write(b, from, to - from);
+        return;
+      }
+    }
+    System.arraycopy(b, from, this.buffer, this.buffered, to - from);
+    this.buffered += to - from;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    b &= 0xff;
+    if (b == '\r')
+      return;
+
+    switch (this.state) {
+      case TEXT:
+        if (b == '<')
+          this.state = State.LESS;
+        else
+          this.emit(b);
+        break;
+      case LESS:
+        if (b == '?') {
+          this.state = State.INSTRUCTION;
+        } else if (b == '!') {
+          this.emit('<');
+          this.emit(b);
+          this.state = State.BANG;
+        } else {
+          this.emit('<');
+          if (b != '<') {
+            this.state = State.TEXT;
+            this.emit(b);
+          }
+        }
+        break;
+      case INSTRUCTION:
+        if (b == '?')
+          this.state = State.QUESTION;
+        break;
+      case QUESTION:
+        if (b == '>')
+          this.state = State.TEXT;
+        else if (b != '?')
+          this.state = State.INSTRUCTION;
+        break;
+      case BANG:
+        if (b == '<') {
+          this.state = State.LESS;
+          break;
+        }
+        this.emit(b);
+        this.closing = 0;
+        this.state = b == '-' ? State.COMMENT : b == '[' ? State.CDATA : State.TEXT;
+        break;
+      case COMMENT:
+      case CDATA:
+        this.emit(b);
+        if (b == (this.state == State.COMMENT ? '-' : ']'))
+          this.closing++;
+        else if (b == '>' && 2 <= this.closing)
+          this.state = State.TEXT;
+        else
+          this.closing = 0;
+        break;
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    int end = off + len;
+
+    while (off < end) {
+      if (this.state == State.TEXT) {
+        // copy up to the next byte that matters in bulk
+        int run = off;
+
+        while (run < end && b[run] != '<' && b[run] != '\r')
+          run++;
+        this.emit(b, off, run);
+        off = run;
+        if (off == end)
+          break;
+      }
+      this.write(b[off++]);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.dest.write(this.buffer, 0, this.buffered);
+    this.buffered = 0;
+    this.dest.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.state == State.LESS)
+      this.emit('<');
+    this.state = State.TEXT;
+    this.pendingSpaces = 0;
+    this.flush();
+  }
+}
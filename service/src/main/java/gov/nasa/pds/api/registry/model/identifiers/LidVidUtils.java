@@ -4,14 +4,23 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import gov.nasa.pds.api.registry.model.ProductVersionSelector;
 import gov.nasa.pds.api.registry.model.ReferencingLogicTransmuter;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
+import org.opensearch.index.query.InnerHitBuilder;
 import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.collapse.CollapseBuilder;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,10 +31,13 @@ import gov.nasa.pds.api.registry.UserContext;
 import gov.nasa.pds.api.registry.exceptions.LidVidMismatchException;
 import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
 import gov.nasa.pds.api.registry.exceptions.UnknownGroupNameException;
+import gov.nasa.pds.api.registry.search.HitIterator;
+import gov.nasa.pds.api.registry.search.MultiSearch;
 import gov.nasa.pds.api.registry.search.QuickSearch;
 import gov.nasa.pds.api.registry.search.RequestBuildContextFactory;
 import gov.nasa.pds.api.registry.search.RequestConstructionContextFactory;
 import gov.nasa.pds.api.registry.search.SearchRequestFactory;
+import gov.nasa.pds.api.registry.search.VersionIndex;
 
 
 /**
@@ -35,11 +47,17 @@ import gov.nasa.pds.api.registry.search.SearchRequestFactory;
  */
 public class LidVidUtils {
   private static final Logger log = LoggerFactory.getLogger(LidVidUtils.class);
+  private static final int LIDS_PER_REQUEST = 1000; // stays well below index.max_result_window
+  private static final int VERSIONS_PER_LID = 100; // index.max_inner_result_window default
 
   public static PdsLidVid getLatestLidVidByLid(ControlContext ctlContext,
       RequestBuildContext reqContext, String productIdentifier)
       throws IOException, LidVidNotFoundException {
     PdsLid lid = PdsProductIdentifier.fromString(productIdentifier).getLid();
+    PdsLidVid indexed = VersionIndex.latest(lid.toString(), reqContext.getPresetCriteria());
+
+    if (indexed != null)
+      return indexed;
 
     SearchRequest searchRequest = new SearchRequestFactory(
         RequestConstructionContextFactory.given("lid", lid.toString(), true),
@@ -67,10 +85,115 @@ public class LidVidUtils {
     throw new LidVidNotFoundException(lid.toString());
   }
 
+  /**
+   * Bulk form of getLatestLidVidByLid(). The LIDs are looked up with a single round trip (one query
+   * per thousand LIDs sent as one _msearch) collapsed on the lid field so that each LID comes back
+   * once with its candidate versions as inner hits. The latest version is then picked with the
+   * PdsLidVid ordering because vid is not numerically sortable in the index, so a LID with more
+   * versions than the inner hits can hold has all of its versions walked on their own.
+   * LIDs known to the VersionIndex are not looked up.
+   *
+   * @return the latest LIDVID of each LID in the order given; LIDs that cannot be found are absent
+   */
+  public static Map<String, PdsLidVid> getLatestLidVidsByLids(ControlContext ctlContext,
+      RequestBuildContext reqContext, Collection<String> productIdentifiers) throws IOException {
+    List<String> lids = new ArrayList<String>(), crowded = new ArrayList<String>();
+    Set<String> wanted = new LinkedHashSet<String>();
+    Map<String, PdsLidVid> found = new HashMap<String, PdsLidVid>();
+    Map<String, PdsLidVid> latest = new LinkedHashMap<String, PdsLidVid>();
+
+    for (String productIdentifier : productIdentifiers) {
+      String lid = PdsProductIdentifier.fromString(productIdentifier).getLid().toString();
+      if (!wanted.contains(lid)) {
+        PdsLidVid indexed = VersionIndex.latest(lid, reqContext.getPresetCriteria());
+
+        wanted.add(lid);
+        if (indexed != null)
+          found.put(lid, indexed);
+        else
+          lids.add(lid);
+      }
+    }
+    MultiSearch batch = new MultiSearch(ctlContext.getConnection());
+    for (int begin = 0; begin < lids.size(); begin += LIDS_PER_REQUEST) {
+      List<String> chunk = lids.subList(begin, Math.min(lids.size(), begin + LIDS_PER_REQUEST));
+      SearchRequest searchRequest = new SearchRequestFactory(
+          RequestConstructionContextFactory.given("lid", new ArrayList<String>(chunk), true),
+          ctlContext.getConnection()).build(
+              RequestBuildContextFactory.given(true, "lidvid", reqContext.getPresetCriteria()),
+              ctlContext.getConnection().getRegistryIndex());
+
+      searchRequest.source().size(chunk.size());
+      searchRequest.source()
+          .collapse(new CollapseBuilder("lid").setInnerHits(new InnerHitBuilder("versions")
+              .setSize(VERSIONS_PER_LID).setFetchSourceContext(
+                  new FetchSourceContext(true, new String[] {"lidvid"}, null))));
+      batch.add(searchRequest);
+    }
+
+    for (SearchResponse searchResponse : batch.execute()) {
+      for (SearchHit searchHit : searchResponse.getHits()) {
+        SearchHits versions =
+            searchHit.getInnerHits() == null ? null : searchHit.getInnerHits().get("versions");
+        List<PdsLidVid> lidVids = new ArrayList<PdsLidVid>();
+
+        for (SearchHit version : versions == null ? new SearchHit[] {searchHit}
+            : versions.getHits()) {
+          lidVids.add(PdsLidVid.fromString((String) version.getSourceAsMap().get("lidvid")));
+        }
+        if (versions != null && versions.getTotalHits() != null
+            && versions.getHits().length < versions.getTotalHits().value)
+          crowded.add(
+              PdsLidVid.fromString((String) searchHit.getSourceAsMap().get("lidvid")).getLid()
+                  .toString());
+        else if (!lidVids.isEmpty()) {
+          PdsLidVid lidVid = Collections.max(lidVids);
+          found.put(lidVid.getLid().toString(), lidVid);
+        }
+      }
+    }
+    for (String lid : crowded) {
+      PdsLidVid lidVid = null;
+
+      for (Map<String, Object> version : new HitIterator(
+          ctlContext.getConnection().getRestHighLevelClient(),
+          new SearchRequestFactory(RequestConstructionContextFactory.given("lid", lid, true),
+              ctlContext.getConnection()).build(
+                  RequestBuildContextFactory.given(true, "lidvid", reqContext.getPresetCriteria()),
+                  ctlContext.getConnection().getRegistryIndex()),
+          HitIterator.REGISTRY_CURSOR)) {
+        PdsLidVid candidate = PdsLidVid.fromString((String) version.get("lidvid"));
+        if (lidVid == null || lidVid.compareTo(candidate) < 0)
+          lidVid = candidate;
+      }
+      if (lidVid != null)
+        found.put(lid, lidVid);
+    }
+    for (String lid : wanted) {
+      if (found.containsKey(lid))
+        latest.put(lid, found.get(lid));
+    }
+    return latest;
+  }
+
+  /**
+   * The LIDs known to the VersionIndex get all of their versions from it, the others are looked up
+   * in OpenSearch.
+   */
   public static List<String> getAllLidVidsByLids(ControlContext ctlContext,
-      RequestBuildContext reqContext, Collection<String> lids) throws IOException {
+      RequestBuildContext reqContext, Collection<String> productLids) throws IOException {
     List<String> lidvids = new ArrayList<String>();
+    List<String> lids = new ArrayList<String>();
 
+    for (String lid : productLids) {
+      List<String> indexed =
+          VersionIndex.lidvids(lid, reqContext.justLatest(), reqContext.getPresetCriteria());
+
+      if (indexed != null)
+        lidvids.addAll(indexed);
+      else
+        lids.add(lid);
+    }
     if (0 < lids.size()) {
       ctlContext.getConnection().getRestHighLevelClient()
           .search(new SearchRequestFactory(
@@ -131,8 +254,8 @@ public class LidVidUtils {
         ReferencingLogicTransmuter.getBySwaggerGroup(user.getGroup());
 
     if (expected_rlt != ReferencingLogicTransmuter.Any) {
-      String actual_group =
-          QuickSearch.getValue(control.getConnection(), false, user.getLidVid(), "product_class");
+      String actual_group = QuickSearch.getValue(control.getConnection(), user, false,
+          user.getLidVid(), "product_class");
       ReferencingLogicTransmuter actual_rlt =
           ReferencingLogicTransmuter.getByProductClass(actual_group);
 
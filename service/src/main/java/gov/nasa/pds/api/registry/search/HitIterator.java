@@ -1,6 +1,7 @@
 package gov.nasa.pds.api.registry.search;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -9,20 +10,47 @@ import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
+import org.opensearch.search.sort.SortOrder;
 
+/**
+ * Walks every hit of a search one page at a time.
+ *
+ * Without cursor keys the pages are fetched with from/size, which is fine for short result lists
+ * but costs O(n^2) on the OpenSearch side and stops at index.max_result_window. With cursor keys
+ * the request is sorted on those keys and each page continues with search_after from the last hit
+ * of the previous page, so every page costs the same regardless of how deep the walk is. The keys
+ * must uniquely identify a document (use {@link #REGISTRY_CURSOR} or {@link #REGISTRY_REFS_CURSOR}).
+ *
+ * A page that cannot be fetched once the walk has begun is thrown as an UncheckedIOException from
+ * hasNext() and next() rather than ending the walk early, so that a caller never mistakes a partial
+ * walk for a complete one.
+ */
 public class HitIterator implements Iterable<Map<String, Object>>, Iterator<Map<String, Object>> {
+  /** unique sort key for documents in the registry index */
+  public static final String REGISTRY_CURSOR = "lidvid";
+  /**
+   * unique sort keys for documents in the registry-refs index: the pages of a collection are told
+   * apart by their reference type and batch number, all of them indexed fields unlike _id
+   */
+  public static final String[] REGISTRY_REFS_CURSOR =
+      {"collection_lidvid", "reference_type", "batch_id"};
+
   private int size = 500; // define size to use here to prevent page skipping if opensearch default
                           // size
                           // ever changes
   private int at = 0, page = 0;
+  private int start = 0, limit = Integer.MAX_VALUE;
   private SearchHits currentBatch;
+  private SearchHit current = null;
   private RestHighLevelClient client;
   private SearchRequest request;
+  final private boolean cursor;
 
   public HitIterator(RestHighLevelClient client, SearchRequest request) throws IOException {
     super();
     this.client = client;
     this.request = request;
+    this.cursor = false;
     this.currentBatch = this.fetch();
   }
 
@@ -32,12 +60,79 @@ public class HitIterator implements Iterable<Map<String, Object>>, Iterator<Map<
     this.client = client;
     this.request = request;
     this.size = size;
+    this.cursor = false;
+    this.currentBatch = this.fetch();
+  }
+
+  /**
+   * Walk only the window [start, start+limit) of the hits using from/size paging.
+   */
+  public HitIterator(int size, RestHighLevelClient client, SearchRequest request, int start,
+      int limit) throws IOException {
+    super();
+    this.client = client;
+    this.request = request;
+    this.size = size;
+    this.start = start;
+    this.limit = limit;
+    this.cursor = false;
+    this.request.source().trackTotalHits(true);
     this.currentBatch = this.fetch();
   }
 
+  public HitIterator(RestHighLevelClient client, SearchRequest request, String... cursorKeys)
+      throws IOException {
+    this(500, client, request, cursorKeys);
+  }
+
+  public HitIterator(int size, RestHighLevelClient client, SearchRequest request,
+      String... cursorKeys) throws IOException {
+    super();
+    this.client = client;
+    this.request = request;
+    this.size = size;
+    this.cursor = 0 < cursorKeys.length;
+    HitIterator.prepare(request, size, cursorKeys);
+    this.currentBatch = this.fetch();
+  }
+
+  /**
+   * Continue a cursor walk whose first page was fetched elsewhere (for instance by MultiSearch).
+   * The request must have been readied with prepare() before that first page was fetched.
+   */
+  public HitIterator(RestHighLevelClient client, SearchRequest request, SearchHits firstPage) {
+    super();
+    this.client = client;
+    this.request = request;
+    this.size = request.source().size();
+    this.cursor = true;
+    this.currentBatch = firstPage;
+  }
+
+  /**
+   * Ready a request for a cursor walk: sorted on the unique cursor keys, after the sorts it already
+   * has, with the page size set. A key it is already sorted on, such as the lidvid tie-breaker of
+   * SortUtil, is not sorted on again.
+   */
+  public static SearchRequest prepare(SearchRequest request, int size, String... cursorKeys) {
+    for (String key : cursorKeys)
+      if (!SortUtil.sorted(request.source(), key))
+        request.source().sort(key, SortOrder.ASC);
+    if (0 < cursorKeys.length)
+      request.source().trackTotalHits(false);
+    request.source().size(size);
+    return request;
+  }
+
   private SearchHits fetch() throws IOException {
-    this.request.source().from(this.page * this.size);
-    this.request.source().size(this.size);
+    if (this.cursor) {
+      if (this.current != null)
+        this.request.source().searchAfter(this.current.getSortValues());
+      this.request.source().size(this.size);
+    } else {
+      this.request.source().from(this.start + this.page * this.size);
+      this.request.source().size(Math.min(this.size, this.limit - this.page * this.size));
+    }
     return this.client.search(this.request, RequestOptions.DEFAULT).getHits();
   }
 
@@ -51,18 +146,51 @@ public class HitIterator implements Iterable<Map<String, Object>>, Iterator<Map<
     return this.currentBatch.getAt(this.at);
   }
 
+  /**
+   * @return how many hits the walk will return or -1 when it cannot be known up front (cursor mode)
+   */
+  public int getExpectedCount() {
+    if (this.cursor || this.currentBatch == null || this.currentBatch.getTotalHits() == null)
+      return -1;
+    return (int) Math.max(0,
+        Math.min(this.limit, this.currentBatch.getTotalHits().value - this.start));
+  }
+
+  /** @return the page of hits being walked, which is the first page until next() crosses it */
+  public SearchHits getPage() {
+    return this.currentBatch;
+  }
+
+  /** @return the total hits reported by OpenSearch or -1 when not tracked (cursor mode) */
+  public long getTotalHits() {
+    return this.currentBatch == null || this.currentBatch.getTotalHits() == null ? -1
+        : this.currentBatch.getTotalHits().value;
+  }
+
+  /** @return the document id of the hit last returned by next() */
   public String getCurrentId() {
-    try {
-      return this.getAt().getId();
-    } catch (IOException ioe) {
-      return null;
-    }
+    return this.current == null ? null : this.current.getId();
   }
 
   @Override
   public boolean hasNext() {
-    return this.currentBatch == null ? false
-        : (this.at + this.page * this.size) < this.currentBatch.getTotalHits().value;
+    if (this.currentBatch == null)
+      return false;
+    if (!this.cursor)
+      return (this.at + this.page * this.size) < this.getExpectedCount();
+    if (this.at < this.currentBatch.getHits().length)
+      return true;
+    if (this.currentBatch.getHits().length < this.size)
+      return false;
+
+    try {
+      this.page++;
+      this.at = 0;
+      this.currentBatch = this.fetch();
+      return 0 < this.currentBatch.getHits().length;
+    } catch (IOException ioe) {
+      throw new UncheckedIOException("Could not fetch page " + this.page + " of the search", ioe);
+    }
   }
 
   @Override
@@ -72,13 +200,20 @@ public class HitIterator implements Iterable<Map<String, Object>>, Iterator<Map<
 
   @Override
   public Map<String, Object> next() {
+    SearchHit hit = this.nextHit();
+    return hit == null ? null : hit.getSourceAsMap();
+  }
+
+  /** @return the next hit as is, without parsing its source like next() does */
+  public SearchHit nextHit() {
     if (this.hasNext()) {
       try {
         SearchHit hit = this.getAt();
         at++;
-        return hit.getSourceAsMap();
+        this.current = hit;
+        return hit;
       } catch (IOException ioe) {
-        return null;
+        throw new UncheckedIOException("Could not fetch page " + this.page + " of the search", ioe);
       }
     } else {
       return null;
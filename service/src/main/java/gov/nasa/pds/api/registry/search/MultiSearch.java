@@ -0,0 +1,65 @@
+package gov.nasa.pds.api.registry.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensearch.action.search.MultiSearchRequest;
+import org.opensearch.action.search.MultiSearchResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.RequestOptions;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+
+/**
+ * Queue independent searches (usually built by SearchRequestFactory) and send them to OpenSearch
+ * as a single _msearch so that k searches cost one round trip. The responses are returned in the
+ * order the requests were added.
+ */
+public class MultiSearch {
+  final private ConnectionContext connection;
+  final private List<SearchRequest> requests = new ArrayList<SearchRequest>();
+
+  public MultiSearch(ConnectionContext connection) {
+    this.connection = connection;
+  }
+
+  /**
+   * @return the position of the response to this request in the list returned by execute()
+   */
+  public int add(SearchRequest request) {
+    this.requests.add(request);
+    return this.requests.size() - 1;
+  }
+
+  public int size() {
+    return this.requests.size();
+  }
+
+  /**
+   * @return the responses in the order the requests were added
+   * @throws IOException when the _msearch fails or any one of the searches fails
+   */
+  public List<SearchResponse> execute() throws IOException {
+    List<SearchResponse> responses = new ArrayList<SearchResponse>(this.requests.size());
+
+    if (this.requests.size() == 1) {
+      responses.add(this.connection.getRestHighLevelClient().search(this.requests.get(0),
+          RequestOptions.DEFAULT));
+    } else if (1 < this.requests.size()) {
+      MultiSearchRequest batch = new MultiSearchRequest();
+
+      for (SearchRequest request : this.requests)
+        batch.add(request);
+      for (MultiSearchResponse.Item item : this.connection.getRestHighLevelClient()
+          .msearch(batch, RequestOptions.DEFAULT).getResponses()) {
+        if (item.isFailure())
+          throw new IOException("One of the batched searches failed: " + item.getFailureMessage(),
+              item.getFailure());
+        responses.add(item.getResponse());
+      }
+    }
+    return responses;
+  }
+}
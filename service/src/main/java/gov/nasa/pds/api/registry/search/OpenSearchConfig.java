@@ -47,6 +47,72 @@ public class OpenSearchConfig {
     this.timeOutSeconds = timeOutSeconds;
   }
 
+  @Value("${openSearch.connectTimeoutSeconds:5}")
+  private int connectTimeoutSeconds;
+
+  @Value("${openSearch.maxConnectionsPerRoute:50}")
+  private int maxConnectionsPerRoute;
+
+  @Value("${openSearch.maxConnectionsTotal:200}")
+  private int maxConnectionsTotal;
+
+  @Value("${openSearch.keepAliveSeconds:60}")
+  private int keepAliveSeconds;
+
+  @Value("${openSearch.ioThreads:0}")
+  private int ioThreads;
+
+  @Value("${openSearch.compression:true}")
+  private boolean compression;
+
+  public int getConnectTimeoutSeconds() {
+    return connectTimeoutSeconds;
+  }
+
+  public void setConnectTimeoutSeconds(int connectTimeoutSeconds) {
+    this.connectTimeoutSeconds = connectTimeoutSeconds;
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+  }
+
+  public int getMaxConnectionsTotal() {
+    return maxConnectionsTotal;
+  }
+
+  public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+    this.maxConnectionsTotal = maxConnectionsTotal;
+  }
+
+  public int getKeepAliveSeconds() {
+    return keepAliveSeconds;
+  }
+
+  public void setKeepAliveSeconds(int keepAliveSeconds) {
+    this.keepAliveSeconds = keepAliveSeconds;
+  }
+
+  public int getIoThreads() {
+    return ioThreads;
+  }
+
+  public void setIoThreads(int ioThreads) {
+    this.ioThreads = ioThreads;
+  }
+
+  public boolean isCompression() {
+    return compression;
+  }
+
+  public void setCompression(boolean compression) {
+    this.compression = compression;
+  }
+
   @Value("${openSearch.username:}")
   private String username;
 
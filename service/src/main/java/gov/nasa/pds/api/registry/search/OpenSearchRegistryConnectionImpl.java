@@ -11,15 +11,19 @@ import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
 import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.opensearch.client.RestClient;
 import org.opensearch.client.RestClientBuilder;
 import org.opensearch.client.RestClientBuilder.HttpClientConfigCallback;
+import org.opensearch.client.RestClientBuilder.RequestConfigCallback;
 import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.action.admin.cluster.settings.ClusterGetSettingsRequest;
@@ -64,23 +68,59 @@ public class OpenSearchRegistryConnectionImpl implements ConnectionContext {
 
     }
 
-    RestClientBuilder clientBuilder;
+    final CredentialsProvider credentialsProvider;
     String username = connectionBuilder.getUsername();
     if ((username != null) && !username.equals("")) {
-
       OpenSearchRegistryConnectionImpl.log.info("Set openSearch connection with username/password");
-      final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+      credentialsProvider = new BasicCredentialsProvider();
       credentialsProvider.setCredentials(AuthScope.ANY,
           new UsernamePasswordCredentials(username, connectionBuilder.getPassword()));
+    } else {
+      OpenSearchRegistryConnectionImpl.log.info("Set openSearch connection");
+      credentialsProvider = null;
+    }
 
-      clientBuilder = RestClient.builder(httpHosts.toArray(new HttpHost[httpHosts.size()]))
-          .setHttpClientConfigCallback(new HttpClientConfigCallback() {
-            @Override
-            public HttpAsyncClientBuilder customizeHttpClient(
-                HttpAsyncClientBuilder httpClientBuilder) {
-
-              try {
+    OpenSearchRegistryConnectionImpl.log.info("HTTP pool of "
+        + connectionBuilder.getMaxConnectionsTotal() + " connections ("
+        + connectionBuilder.getMaxConnectionsPerRoute() + " per host), keep-alive "
+        + connectionBuilder.getKeepAliveSeconds() + "s, timeouts connect "
+        + connectionBuilder.getConnectTimeoutSeconds() + "s / socket "
+        + connectionBuilder.getTimeOutSeconds() + "s, compression "
+        + connectionBuilder.isCompression());
+    RestClientBuilder clientBuilder = RestClient
+        .builder(httpHosts.toArray(new HttpHost[httpHosts.size()]))
+        .setCompressionEnabled(connectionBuilder.isCompression())
+        .setRequestConfigCallback(new RequestConfigCallback() {
+          @Override
+          public RequestConfig.Builder customizeRequestConfig(
+              RequestConfig.Builder requestConfigBuilder) {
+            return requestConfigBuilder
+                .setConnectTimeout(connectionBuilder.getConnectTimeoutSeconds() * 1000)
+                .setSocketTimeout(connectionBuilder.getTimeOutSeconds() * 1000);
+          }
+        }).setHttpClientConfigCallback(new HttpClientConfigCallback() {
+          @Override
+          public HttpAsyncClientBuilder customizeHttpClient(
+              HttpAsyncClientBuilder httpClientBuilder) {
+
+            try {
+              long keepAlive = connectionBuilder.getKeepAliveSeconds() * 1000L;
+
+              httpClientBuilder.setMaxConnTotal(connectionBuilder.getMaxConnectionsTotal())
+                  .setMaxConnPerRoute(connectionBuilder.getMaxConnectionsPerRoute())
+                  .setKeepAliveStrategy((response, context) -> {
+                    // honor a shorter Keep-Alive advertised by the server, otherwise ours
+                    long advertised = DefaultConnectionKeepAliveStrategy.INSTANCE
+                        .getKeepAliveDuration(response, context);
+                    return advertised < 0 ? keepAlive : Math.min(advertised, keepAlive);
+                  });
+              if (0 < connectionBuilder.getIoThreads()) {
+                httpClientBuilder.setDefaultIOReactorConfig(IOReactorConfig.custom()
+                    .setIoThreadCount(connectionBuilder.getIoThreads()).build());
+              }
+              RequestMetrics.instrument(httpClientBuilder);
 
+              if (credentialsProvider != null) {
                 if (connectionBuilder.isSsl()) {
                   OpenSearchRegistryConnectionImpl.log.info("Connection over SSL");
                   SSLContextBuilder sslBld = SSLContexts.custom();
@@ -93,16 +133,14 @@ public class OpenSearchRegistryConnectionImpl implements ConnectionContext {
                   }
                 }
 
-                return httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
-              } catch (Exception ex) {
-                throw new RuntimeException(ex);
+                httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
               }
+              return httpClientBuilder;
+            } catch (Exception ex) {
+              throw new RuntimeException(ex);
             }
-          });
-    } else {
-      OpenSearchRegistryConnectionImpl.log.info("Set openSearch connection");
-      clientBuilder = RestClient.builder(httpHosts.toArray(new HttpHost[httpHosts.size()]));
-    }
+          }
+        });
 
     this.restHighLevelClient = new RestHighLevelClient(clientBuilder);
 
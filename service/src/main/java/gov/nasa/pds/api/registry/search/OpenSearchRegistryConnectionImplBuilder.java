@@ -55,6 +55,30 @@ class OpenSearchRegistryConnectionImplBuilder {
     return timeOutSeconds;
   }
 
+  public int getConnectTimeoutSeconds() {
+    return connectTimeoutSeconds;
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public int getMaxConnectionsTotal() {
+    return maxConnectionsTotal;
+  }
+
+  public int getKeepAliveSeconds() {
+    return keepAliveSeconds;
+  }
+
+  public int getIoThreads() {
+    return ioThreads;
+  }
+
+  public boolean isCompression() {
+    return compression;
+  }
+
   public boolean isSsl() {
     return ssl;
   }
@@ -66,6 +90,12 @@ class OpenSearchRegistryConnectionImplBuilder {
   private final String registryIndex;
   private final String registryRefIndex;
   private final int timeOutSeconds;
+  private final int connectTimeoutSeconds;
+  private final int maxConnectionsPerRoute;
+  private final int maxConnectionsTotal;
+  private final int keepAliveSeconds;
+  private final int ioThreads;
+  private final boolean compression;
   private final boolean ssl;
   private final boolean sslCertificateCNVerification;
 
@@ -78,6 +108,12 @@ class OpenSearchRegistryConnectionImplBuilder {
     this.registryIndex = "registry";
     this.registryRefIndex = "registry-refs";
     this.timeOutSeconds = 5;
+    this.connectTimeoutSeconds = 5;
+    this.maxConnectionsPerRoute = 50;
+    this.maxConnectionsTotal = 200;
+    this.keepAliveSeconds = 60;
+    this.ioThreads = 0;
+    this.compression = true;
     this.username = null;
     this.password = null;
     this.ssl = false;
@@ -91,6 +127,12 @@ class OpenSearchRegistryConnectionImplBuilder {
     this.registryIndex = openSearchConfig.getRegistryIndex();
     this.registryRefIndex = openSearchConfig.getRegistryRefIndex();
     this.timeOutSeconds = openSearchConfig.getTimeOutSeconds();
+    this.connectTimeoutSeconds = openSearchConfig.getConnectTimeoutSeconds();
+    this.maxConnectionsPerRoute = openSearchConfig.getMaxConnectionsPerRoute();
+    this.maxConnectionsTotal = openSearchConfig.getMaxConnectionsTotal();
+    this.keepAliveSeconds = openSearchConfig.getKeepAliveSeconds();
+    this.ioThreads = openSearchConfig.getIoThreads();
+    this.compression = openSearchConfig.isCompression();
     this.ssl = openSearchConfig.isSsl();
     this.sslCertificateCNVerification = openSearchConfig.doesSslCertificateVCNerification();
     this.username = openSearchConfig.getUsername();
@@ -1,51 +1,234 @@
 package gov.nasa.pds.api.registry.search;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
 
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.RequestOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.UserContext;
 import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 
+/**
+ * Fetch a single field, or a few fields, of a single product.
+ *
+ * The answers are memoized in the UserContext of the request, when one is given, and, when
+ * quickSearch.cache.size is larger than 0, in a process wide cache that evicts after
+ * quickSearch.cache.ttlSeconds. Both are keyed by (index, lidvid, field, justLatest), the fields
+ * asked for together that are not known yet being fetched by one search. Products not found are
+ * never cached. Lists are given unmodifiable since they are shared by every caller.
+ */
+@Component
 public class QuickSearch {
-  final private static Object get(ConnectionContext connection, boolean justLatest, String index,
-      String lidvid, String name) throws IOException, LidVidNotFoundException {
+  private static final Logger log = LoggerFactory.getLogger(QuickSearch.class);
+
+  @Value("${quickSearch.cache.size:0}")
+  private long propCacheSize;
+  @Value("${quickSearch.cache.ttlSeconds:60}")
+  private long propCacheTTL;
+  @Autowired(required = false)
+  private MeterRegistry registry;
+
+  private static Cache<List<Object>, Optional<Object>> cache = null;
+  private static Counter memoHits = null, memoMisses = null;
+
+  @PostConstruct
+  public void init() {
+    if (0 < this.propCacheSize) {
+      cache = CacheBuilder.newBuilder().maximumSize(this.propCacheSize)
+          .expireAfterWrite(this.propCacheTTL, TimeUnit.SECONDS).recordStats().build();
+      log.info("QuickSearch cache holds " + this.propCacheSize + " values for " + this.propCacheTTL
+          + " seconds");
+    }
+    if (this.registry != null) {
+      if (cache != null)
+        GuavaCacheMetrics.monitor(this.registry, cache, "registry.quicksearch");
+      memoHits = Counter.builder("registry.quicksearch.memo").tag("result", "hit")
+          .register(this.registry);
+      memoMisses = Counter.builder("registry.quicksearch.memo").tag("result", "miss")
+          .register(this.registry);
+    }
+  }
+
+  final private static Map<String, Object> search(ConnectionContext connection,
+      boolean justLatest, String index, String lidvid, List<String> names)
+      throws IOException, LidVidNotFoundException {
     SearchRequest request =
         new SearchRequestFactory(RequestConstructionContextFactory.given(lidvid), connection)
-            .build(RequestBuildContextFactory.given(justLatest, name), index);
+            .build(RequestBuildContextFactory.given(justLatest, names), index);
     SearchResponse result =
         connection.getRestHighLevelClient().search(request, RequestOptions.DEFAULT);
 
     if (result.getHits().getTotalHits().value == 0L)
       throw new LidVidNotFoundException(lidvid);
 
-    return result.getHits().getAt(0).getSourceAsMap().get(name);
+    return result.getHits().getAt(0).getSourceAsMap();
+  }
+
+  /** @return the fields of a product, those neither memoized nor cached fetched in one search */
+  final private static Map<String, Object> get(ConnectionContext connection, UserContext user,
+      boolean justLatest, String index, String lidvid, List<String> names)
+      throws IOException, LidVidNotFoundException {
+    Map<List<Object>, Optional<Object>> memo = user == null ? null : user.getMemo();
+    Map<String, Object> values = new HashMap<String, Object>();
+    List<String> missing = new ArrayList<String>();
+
+    for (String name : names) {
+      List<Object> key = Arrays.asList(index, lidvid, name, justLatest);
+      Optional<Object> value = memo == null ? null : memo.get(key);
+
+      if (value == null) {
+        if (memoMisses != null && memo != null)
+          memoMisses.increment();
+        if (cache != null)
+          value = cache.getIfPresent(key);
+        if (value == null) {
+          missing.add(name);
+          continue;
+        }
+        if (memo != null)
+          memo.put(key, value);
+      } else if (memoHits != null)
+        memoHits.increment();
+      values.put(name, shared(value));
+    }
+
+    if (!missing.isEmpty()) {
+      Map<String, Object> source =
+          QuickSearch.search(connection, justLatest, index, lidvid, missing);
+
+      for (String name : missing) {
+        List<Object> key = Arrays.asList(index, lidvid, name, justLatest);
+        Optional<Object> value = Optional.ofNullable(source.get(name));
+
+        if (cache != null)
+          cache.put(key, value);
+        if (memo != null)
+          memo.put(key, value);
+        values.put(name, shared(value));
+      }
+    }
+    return values;
   }
 
-  final public static String getValue(ConnectionContext connection, boolean justLatest,
-      String lidvid, String name) throws IOException, LidVidNotFoundException {
-    return (String) QuickSearch.get(connection, justLatest, connection.getRegistryIndex(), lidvid,
-        name);
+  private static Object shared(Optional<Object> value) {
+    return value.orElse(null) instanceof List
+        ? Collections.unmodifiableList((List<?>) value.get())
+        : value.orElse(null);
   }
 
-  final public static String getValue(ConnectionContext connection, boolean justLatest,
-      String index, String lidvid, String name) throws IOException, LidVidNotFoundException {
-    return (String) QuickSearch.get(connection, justLatest, index, lidvid, name);
+  final private static Object get(ConnectionContext connection, UserContext user,
+      boolean justLatest, String index, String lidvid, String name)
+      throws IOException, LidVidNotFoundException {
+    return QuickSearch.get(connection, user, justLatest, index, lidvid, List.of(name)).get(name);
   }
 
-  @SuppressWarnings("unchecked")
-  final public static List<String> getValues(ConnectionContext connection, boolean justLatest,
-      String lidvid, String name) throws IOException, LidVidNotFoundException {
-    return (List<String>) QuickSearch.get(connection, justLatest, connection.getRegistryIndex(),
+  final public static String getValue(ConnectionContext connection, UserContext user,
+      boolean justLatest, String lidvid, String name) throws IOException, LidVidNotFoundException {
+    return (String) QuickSearch.get(connection, user, justLatest, connection.getRegistryIndex(),
         lidvid, name);
   }
 
+  final public static String getValue(ConnectionContext connection, UserContext user,
+      boolean justLatest, String index, String lidvid, String name)
+      throws IOException, LidVidNotFoundException {
+    return (String) QuickSearch.get(connection, user, justLatest, index, lidvid, name);
+  }
+
+  /** @return the value of a field harvest may have written as a list, its first item when it did */
+  final public static String getFirstValue(ConnectionContext connection, UserContext user,
+      boolean justLatest, String lidvid, String name) throws IOException, LidVidNotFoundException {
+    return first(QuickSearch.get(connection, user, justLatest, connection.getRegistryIndex(),
+        lidvid, name));
+  }
+
+  /**
+   * @return the fields of a product, by name, with the first item of those harvest wrote as a
+   *         list; the fields not known yet are fetched together by one search
+   */
+  final public static Map<String, String> getFirstValues(ConnectionContext connection,
+      UserContext user, boolean justLatest, String lidvid, String... names)
+      throws IOException, LidVidNotFoundException {
+    Map<String, String> firsts = new HashMap<String, String>();
+
+    for (Map.Entry<String, Object> value : QuickSearch.get(connection, user, justLatest,
+        connection.getRegistryIndex(), lidvid, Arrays.asList(names)).entrySet())
+      firsts.put(value.getKey(), first(value.getValue()));
+    return firsts;
+  }
+
+  private static String first(Object value) {
+    if (value instanceof List)
+      return ((List<?>) value).isEmpty() ? null : String.valueOf(((List<?>) value).get(0));
+    return value == null ? null : String.valueOf(value);
+  }
+
+  /**
+   * Memoize in user the fields of a product another search of the request already fetched, as if
+   * they had been asked for without justLatest.
+   */
+  final public static void remember(ConnectionContext connection, UserContext user, String lidvid,
+      Map<String, Object> values) {
+    if (user != null && user.getMemo() != null)
+      for (Map.Entry<String, Object> value : values.entrySet())
+        user.getMemo().put(
+            Arrays.asList(connection.getRegistryIndex(), lidvid, value.getKey(), false),
+            Optional.ofNullable(value.getValue()));
+  }
+
+  /**
+   * @return the fields of a product memoized in user, without searching, null unless every one of
+   *         them is
+   */
+  final public static Map<String, Object> recall(ConnectionContext connection, UserContext user,
+      String lidvid, String... names) {
+    Map<String, Object> values = new HashMap<String, Object>();
+
+    if (user == null || user.getMemo() == null)
+      return null;
+    for (String name : names) {
+      Optional<Object> value =
+          user.getMemo().get(Arrays.asList(connection.getRegistryIndex(), lidvid, name, false));
+      if (value == null)
+        return null;
+      values.put(name, value.orElse(null));
+    }
+    return values;
+  }
+
+  @SuppressWarnings("unchecked")
+  final public static List<String> getValues(ConnectionContext connection, UserContext user,
+      boolean justLatest, String lidvid, String name) throws IOException, LidVidNotFoundException {
+    return (List<String>) QuickSearch.get(connection, user, justLatest,
+        connection.getRegistryIndex(), lidvid, name);
+  }
+
   @SuppressWarnings("unchecked")
-  final public static List<String> getValues(ConnectionContext connection, boolean justLatest,
-      String index, String lidvid, String name) throws IOException, LidVidNotFoundException {
-    return (List<String>) QuickSearch.get(connection, justLatest, index, lidvid, name);
+  final public static List<String> getValues(ConnectionContext connection, UserContext user,
+      boolean justLatest, String index, String lidvid, String name)
+      throws IOException, LidVidNotFoundException {
+    return (List<String>) QuickSearch.get(connection, user, justLatest, index, lidvid, name);
   }
 }
@@ -0,0 +1,223 @@
+package gov.nasa.pds.api.registry.search;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation of the transmuter, search and serialize pipeline.
+ *
+ * Every HTTP request gets a Tally in its request attributes that accumulates the OpenSearch calls
+ * made on its behalf (counted by interceptors on the OpenSearch HTTP client) and the time spent
+ * converting hits to business objects and writing them out. The tally is reported once the
+ * response is written, so streamed responses include the pages fetched while writing; their hits
+ * are also converted while writing and so count as serialization. Threads working for a request
+ * without its attributes, like the two step traversal pool, carry the tally over with
+ * propagate().
+ *
+ * Nothing is recorded when no MeterRegistry is available.
+ */
+@Component
+public class RequestMetrics {
+  private static final String TALLY = RequestMetrics.class.getName() + ".tally";
+  private static final String CALL = RequestMetrics.class.getName() + ".call";
+  private static final ThreadLocal<Tally> propagated = new ThreadLocal<Tally>();
+
+  @Autowired(required = false)
+  private MeterRegistry registry;
+
+  private static MeterRegistry meters = null;
+  private static Counter calls = null, bytes = null;
+  private static DistributionSummary callsPerRequest = null, bytesPerRequest = null;
+  private static Timer opensearch = null, conversion = null, serialization = null;
+
+  /**
+   * What one HTTP request cost. Updated from the request threads and the OpenSearch I/O threads.
+   */
+  public static class Tally {
+    final private AtomicLong calls = new AtomicLong();
+    final private AtomicLong bytes = new AtomicLong();
+    final private AtomicLong opensearchNanos = new AtomicLong();
+    final private AtomicLong conversionNanos = new AtomicLong();
+    private volatile long serializationBegin = 0L;
+  }
+
+  /** the OpenSearch call in flight: who asked for it and when it was sent */
+  private static class Call {
+    final private Tally tally;
+    final private long begin = System.nanoTime();
+
+    Call(Tally tally) {
+      this.tally = tally;
+    }
+  }
+
+  @PostConstruct
+  public void init() {
+    if (this.registry != null) {
+      calls = Counter.builder("registry.opensearch.calls")
+          .description("requests sent to OpenSearch").register(this.registry);
+      bytes = Counter.builder("registry.opensearch.bytes").baseUnit("bytes")
+          .description("response bytes received from OpenSearch").register(this.registry);
+      callsPerRequest = DistributionSummary.builder("registry.request.opensearch.calls")
+          .description("OpenSearch calls made to answer one request").register(this.registry);
+      bytesPerRequest = DistributionSummary.builder("registry.request.opensearch.bytes")
+          .baseUnit("bytes").description("OpenSearch response bytes read to answer one request")
+          .register(this.registry);
+      opensearch = this.phase("opensearch");
+      conversion = this.phase("conversion");
+      serialization = this.phase("serialization");
+      meters = this.registry;
+    }
+  }
+
+  private Timer phase(String name) {
+    return Timer.builder("registry.request.phase").tag("phase", name)
+        .description("time one request spent in OpenSearch, building business objects and "
+            + "writing the response")
+        .register(this.registry);
+  }
+
+  /** @return the tally of the request being processed by this thread, if any */
+  public static Tally current() {
+    Tally tally = propagated.get();
+
+    if (tally == null && meters != null) {
+      RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+      if (attributes != null)
+        tally = (Tally) attributes.getAttribute(TALLY, RequestAttributes.SCOPE_REQUEST);
+    }
+    return tally;
+  }
+
+  /** Start the tally of the current request unless it already has one (async re-dispatch). */
+  public static void begin() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+    if (meters != null && attributes != null
+        && attributes.getAttribute(TALLY, RequestAttributes.SCOPE_REQUEST) == null)
+      attributes.setAttribute(TALLY, new Tally(), RequestAttributes.SCOPE_REQUEST);
+  }
+
+  /** Report the tally of the current request once its response has been written. */
+  public static void end() {
+    Tally tally = RequestMetrics.current();
+
+    if (tally != null) {
+      callsPerRequest.record(tally.calls.get());
+      bytesPerRequest.record(tally.bytes.get());
+      opensearch.record(tally.opensearchNanos.get(), TimeUnit.NANOSECONDS);
+      conversion.record(tally.conversionNanos.get(), TimeUnit.NANOSECONDS);
+      if (tally.serializationBegin != 0L)
+        serialization.record(System.nanoTime() - tally.serializationBegin, TimeUnit.NANOSECONDS);
+      RequestContextHolder.currentRequestAttributes().removeAttribute(TALLY,
+          RequestAttributes.SCOPE_REQUEST);
+    }
+  }
+
+  /** @return work that accounts to the tally of the request submitting it */
+  public static <T> Callable<T> propagate(Callable<T> work) {
+    Tally tally = RequestMetrics.current();
+
+    if (tally == null)
+      return work;
+    return () -> {
+      propagated.set(tally);
+      try {
+        return work.call();
+      } finally {
+        propagated.remove();
+      }
+    };
+  }
+
+  /** @return executor running the work it is given on behalf of the request wrapping it */
+  public static Executor propagate(Executor executor) {
+    Tally tally = RequestMetrics.current();
+
+    if (tally == null)
+      return executor;
+    return (work) -> executor.execute(() -> {
+      propagated.set(tally);
+      try {
+        work.run();
+      } finally {
+        propagated.remove();
+      }
+    });
+  }
+
+  public static void conversion(long nanos) {
+    Tally tally = RequestMetrics.current();
+    if (tally != null)
+      tally.conversionNanos.addAndGet(nanos);
+  }
+
+  /** Mark the response body being handed to the message converters. */
+  public static void serializing() {
+    Tally tally = RequestMetrics.current();
+    if (tally != null && tally.serializationBegin == 0L)
+      tally.serializationBegin = System.nanoTime();
+  }
+
+  /** Time an endpoint handler from the request parameters to the response entity. */
+  public static void handler(Tags tags, long nanos) {
+    if (meters != null)
+      Timer.builder("registry.handler").tags(tags).register(meters).record(nanos,
+          TimeUnit.NANOSECONDS);
+  }
+
+  /** Time a ReferencingLogic traversal like member() or memberOf(). */
+  public static void traversal(Object logic, String operation, boolean twoSteps, long nanos) {
+    if (meters != null)
+      Timer.builder("registry.traversal").tag("logic", logic.getClass().getSimpleName())
+          .tag("operation", operation).tag("twoSteps", String.valueOf(twoSteps)).register(meters)
+          .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Count the calls and response bytes of an OpenSearch client. Request interceptors run on the
+   * thread executing the request so that is where the calling request is identified; the response
+   * interceptors run on the I/O threads once the response headers arrived.
+   */
+  static void instrument(HttpAsyncClientBuilder builder) {
+    builder.addInterceptorLast((HttpRequestInterceptor) (request, context) -> {
+      if (meters != null && context.getAttribute(CALL) == null) {
+        context.setAttribute(CALL, new Call(RequestMetrics.current()));
+        calls.increment();
+      }
+    });
+    builder.addInterceptorLast((HttpResponseInterceptor) (response, context) -> {
+      Call call = (Call) context.getAttribute(CALL);
+      long length = response.getEntity() == null ? 0L : response.getEntity().getContentLength();
+
+      if (call != null) {
+        if (0 < length)
+          bytes.increment(length);
+        if (call.tally != null) {
+          call.tally.calls.incrementAndGet();
+          call.tally.opensearchNanos.addAndGet(System.nanoTime() - call.begin);
+          if (0 < length)
+            call.tally.bytes.addAndGet(length);
+        }
+      }
+    });
+  }
+}
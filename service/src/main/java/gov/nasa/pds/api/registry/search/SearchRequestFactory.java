@@ -103,9 +103,13 @@ public class SearchRequestFactory {
       ProductQueryBuilderUtil.addPresetCriteria(this.base, context.getPresetCriteria());
     }
 
-    return new SearchRequest().indices(index)
-        .source(new SearchSourceBuilder().query(this.base).fetchSource(
-            context.getFields().toArray(new String[0]),
-            SearchRequestFactory.excludes(context.getFields())));
+    SearchSourceBuilder source = new SearchSourceBuilder().query(this.base).fetchSource(
+        context.getFields().toArray(new String[0]),
+        SearchRequestFactory.excludes(context.getFields()));
+
+    if (this.regContext.getRegistryIndex().equals(index))
+      SortUtil.apply(source, context.getSort());
+
+    return new SearchRequest().indices(index).source(source);
   }
 }
@@ -0,0 +1,144 @@
+package gov.nasa.pds.api.registry.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.indices.GetFieldMappingsRequest;
+import org.opensearch.client.indices.GetFieldMappingsResponse;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.FieldSortBuilder;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.exceptions.UnsupportedSearchProperty;
+import gov.nasa.pds.api.registry.model.SearchUtil;
+
+/**
+ * Turn the sort parameter (sort=asc(field0),desc(field1),...) into OpenSearch sorts.
+ *
+ * The fields are API names (dots) and are mapped to their OpenSearch names (slashes). Only fields
+ * whose mapping is sortable with doc values (keyword, numeric, date, boolean) are accepted.
+ *
+ * Every registry search SearchRequestFactory builds ends with lidvid, sort parameter or not, so
+ * that hits of equal keys, or of equal scores, page in the same order from one request to the
+ * next. HitIterator.prepare() does not sort again on a cursor key already sorted on, so a cursor
+ * walk over lidvid keeps this one.
+ */
+public class SortUtil {
+  private static final Logger log = LoggerFactory.getLogger(SortUtil.class);
+  private static final Pattern SORT = Pattern.compile(
+      "^\\s*(?:(asc|desc)\\s*\\(\\s*([^()]+?)\\s*\\)|([^()]+?))\\s*$", Pattern.CASE_INSENSITIVE);
+  private static final Set<String> SORTABLE =
+      Set.of("boolean", "byte", "date", "date_nanos", "double", "float", "half_float", "integer",
+          "keyword", "long", "scaled_float", "short", "unsigned_long");
+  public static final String TIE_BREAKER = "lidvid";
+
+  // mapping types by OpenSearch field name; the registry mappings only ever grow
+  private static final Map<String, String> types = new ConcurrentHashMap<String, String>();
+
+  static class Key {
+    final String field;
+    final SortOrder order;
+
+    Key(String field, SortOrder order) {
+      this.field = field;
+      this.order = order;
+    }
+  }
+
+  static List<Key> parse(List<String> sort) throws UnsupportedSearchProperty {
+    List<Key> keys = new ArrayList<Key>();
+
+    for (String item : sort) {
+      if (item == null || item.isBlank())
+        continue;
+
+      Matcher matcher = SORT.matcher(item);
+      if (!matcher.matches())
+        throw new UnsupportedSearchProperty(
+            "The sort '" + item + "' is not of the form asc(field) or desc(field)");
+      if (matcher.group(1) == null)
+        keys.add(new Key(SearchUtil.jsonPropertyToOpenProperty(matcher.group(3)), SortOrder.ASC));
+      else
+        keys.add(new Key(SearchUtil.jsonPropertyToOpenProperty(matcher.group(2)),
+            SortOrder.fromString(matcher.group(1))));
+    }
+    return keys;
+  }
+
+  /**
+   * Check that every sort is well formed and names a sortable field of the registry index.
+   */
+  public static void verify(ConnectionContext connection, List<String> sort)
+      throws IOException, UnsupportedSearchProperty {
+    List<String> unknown = new ArrayList<String>();
+
+    for (Key key : SortUtil.parse(sort))
+      if (!types.containsKey(key.field))
+        unknown.add(key.field);
+
+    if (!unknown.isEmpty()) {
+      GetFieldMappingsRequest request = new GetFieldMappingsRequest()
+          .indices(connection.getRegistryIndex().split(",")).fields(unknown.toArray(new String[0]));
+      GetFieldMappingsResponse response = connection.getRestHighLevelClient().indices()
+          .getFieldMapping(request, RequestOptions.DEFAULT);
+
+      for (Map<String, GetFieldMappingsResponse.FieldMappingMetadata> fields : response.mappings()
+          .values()) {
+        for (GetFieldMappingsResponse.FieldMappingMetadata field : fields.values()) {
+          for (Object definition : field.sourceAsMap().values()) {
+            if (definition instanceof Map && ((Map<?, ?>) definition).containsKey("type"))
+              types.put(field.fullName(), String.valueOf(((Map<?, ?>) definition).get("type")));
+          }
+        }
+      }
+      log.debug("Sort field types: " + types);
+    }
+
+    for (Key key : SortUtil.parse(sort)) {
+      if (!types.containsKey(key.field))
+        throw new UnsupportedSearchProperty("Cannot sort on unknown field '"
+            + SearchUtil.openPropertyToJsonProperty(key.field) + "'");
+      if (!SORTABLE.contains(types.get(key.field)))
+        throw new UnsupportedSearchProperty(
+            "Cannot sort on field '" + SearchUtil.openPropertyToJsonProperty(key.field)
+                + "' of type " + types.get(key.field) + ", only on " + SORTABLE);
+    }
+  }
+
+  /**
+   * Add the sorts, which must have passed verify(), and the lidvid tie-breaker, unless one of them
+   * already is on lidvid, to the search.
+   */
+  public static void apply(SearchSourceBuilder source, List<String> sort) {
+    List<Key> keys;
+
+    try {
+      keys = SortUtil.parse(sort);
+    } catch (UnsupportedSearchProperty usp) {
+      throw new IllegalArgumentException(usp.getMessage(), usp);
+    }
+
+    for (Key key : keys)
+      source.sort(SortBuilders.fieldSort(key.field).order(key.order));
+    if (!SortUtil.sorted(source, TIE_BREAKER))
+      source.sort(SortBuilders.fieldSort(TIE_BREAKER).order(SortOrder.ASC));
+  }
+
+  /** @return whether the search is already sorted on field */
+  public static boolean sorted(SearchSourceBuilder source, String field) {
+    return source.sorts() != null && source.sorts().stream().anyMatch(
+        (sort) -> sort instanceof FieldSortBuilder
+            && field.equals(((FieldSortBuilder) sort).getFieldName()));
+  }
+}
@@ -0,0 +1,337 @@
+package gov.nasa.pds.api.registry.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.metrics.Max;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.GroupConstraint;
+import gov.nasa.pds.api.registry.model.ProductQueryBuilderUtil;
+import gov.nasa.pds.api.registry.model.identifiers.PdsLid;
+import gov.nasa.pds.api.registry.model.identifiers.PdsLidVid;
+import gov.nasa.pds.api.registry.model.identifiers.PdsVid;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The versions of every LID of the registry index kept in memory so that the latest, or every,
+ * version of a LID is known without asking OpenSearch.
+ *
+ * When versionIndex.enabled is true the index is built in the background, once the application is
+ * ready, by walking the products that pass the archive status filter; lookups fall back to
+ * OpenSearch until it is done. Every versionIndex.refreshSeconds it then reads the products whose
+ * ops:Harvest_Info/ops:harvest_date_time is at most OVERLAP older than the latest one it has seen.
+ * Changes that harvest nothing, like deletions or archive status updates, are only seen by the
+ * rebuild done every versionIndex.rebuildSeconds.
+ *
+ * Each LID maps to its VIDs as sorted longs, the major version in the high half, next to the
+ * product_class of each version as an index in a small table of names. The latest version is the
+ * highest VID, which is what the superseded_by stopband leaves once the versions have been swept.
+ * Preset criteria are honored when they are on product_class only.
+ *
+ * The lookups return null whenever the index cannot answer: when it is disabled or not built yet,
+ * when the preset criteria are on other fields, when the LID is not in the index and, with preset
+ * criteria, when a version of the LID has a product_class past the MAX_CLASSES the table holds.
+ * The caller then asks OpenSearch as it would have without the index.
+ */
+@Component
+public class VersionIndex {
+  private static final Logger log = LoggerFactory.getLogger(VersionIndex.class);
+  public static final String HARVEST_TIME = "ops:Harvest_Info/ops:harvest_date_time";
+  private static final String PRODUCT_CLASS = "product_class";
+  private static final String OVERLAP = "10m"; // harvested products take a while to be searchable
+  private static final int PAGE_SIZE = 5000;
+  private static final int MAX_CLASSES = Byte.MAX_VALUE;
+  static final byte NO_CLASS = -1, UNKNOWN_CLASS = -2;
+
+  @Value("${versionIndex.enabled:false}")
+  private boolean enabled;
+  @Value("${versionIndex.refreshSeconds:60}")
+  private long refreshSeconds;
+  @Value("${versionIndex.rebuildSeconds:3600}")
+  private long rebuildSeconds;
+  @Autowired
+  private ConnectionContext connection;
+  @Autowired(required = false)
+  private MeterRegistry registry;
+
+  private static volatile Map<String, Versions> lids = null;
+  private static final List<String> classes = new CopyOnWriteArrayList<String>();
+  private static Counter hits = null, misses = null;
+
+  private ScheduledExecutorService scheduler = null;
+  private String watermark = null; // latest harvest time seen, only touched by the scheduler
+  private long rebuilt = 0L;
+
+  /** the versions of one LID; never modified, a change replaces it */
+  static final class Versions {
+    final long[] vids;
+    final byte[] classes;
+
+    Versions(long[] vids, byte[] classes) {
+      this.vids = vids;
+      this.classes = classes;
+    }
+
+    /** @return whether a version has a product_class that is not in the table */
+    boolean unknown() {
+      for (byte productClass : this.classes)
+        if (productClass == UNKNOWN_CLASS)
+          return true;
+      return false;
+    }
+
+    Versions with(long vid, byte productClass) {
+      int at = Arrays.binarySearch(this.vids, vid);
+
+      if (0 <= at) {
+        if (this.classes[at] == productClass)
+          return this;
+        byte[] classes = this.classes.clone();
+        classes[at] = productClass;
+        return new Versions(this.vids, classes);
+      }
+
+      at = -at - 1;
+      long[] vids = new long[this.vids.length + 1];
+      byte[] classes = new byte[this.vids.length + 1];
+      System.arraycopy(this.vids, 0, vids, 0, at);
+      System.arraycopy(this.classes, 0, classes, 0, at);
+      vids[at] = vid;
+      classes[at] = productClass;
+      System.arraycopy(this.vids, at, vids, at + 1, this.vids.length - at);
+      System.arraycopy(this.classes, at, classes, at + 1, this.vids.length - at);
+      return new Versions(vids, classes);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!this.enabled)
+      return;
+
+    if (this.registry != null) {
+      Gauge.builder("registry.versionindex.lids", () -> lids == null ? 0 : lids.size())
+          .description("LIDs in the in-memory version index").register(this.registry);
+      hits = Counter.builder("registry.versionindex.lookups").tag("result", "hit")
+          .register(this.registry);
+      misses = Counter.builder("registry.versionindex.lookups").tag("result", "miss")
+          .register(this.registry);
+    }
+    this.scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+      Thread thread = new Thread(runnable, "registry-version-index");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleWithFixedDelay(this::update, 0L, this.refreshSeconds, TimeUnit.SECONDS);
+    log.info("Version index refreshed every " + this.refreshSeconds + " seconds and rebuilt every "
+        + this.rebuildSeconds + " seconds");
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (this.scheduler != null)
+      this.scheduler.shutdownNow();
+  }
+
+  private void update() {
+    try {
+      if (lids == null
+          || this.rebuildSeconds * 1000L <= System.currentTimeMillis() - this.rebuilt) {
+        long begin = System.currentTimeMillis();
+        Map<String, Versions> fresh = new ConcurrentHashMap<String, Versions>();
+
+        this.watermark = this.scan(null, fresh);
+        this.rebuilt = begin;
+        lids = fresh;
+        log.info("Version index built with " + fresh.size() + " LIDs in "
+            + (System.currentTimeMillis() - begin) + " ms");
+      } else
+        this.watermark = this.scan(this.watermark, lids);
+    } catch (IOException | RuntimeException e) {
+      // keep what is there, the next update tries again
+      log.error("Could not update the version index", e);
+    }
+  }
+
+  private static String first(Object value) {
+    if (value instanceof List)
+      return ((List<?>) value).isEmpty() ? null : String.valueOf(((List<?>) value).get(0));
+    return value == null ? null : String.valueOf(value);
+  }
+
+  // NO_CLASS for a product without product_class, UNKNOWN_CLASS once the table is full
+  static synchronized byte classOf(String productClass) {
+    if (productClass == null)
+      return NO_CLASS;
+
+    int at = classes.indexOf(productClass);
+    if (at < 0) {
+      if (MAX_CLASSES <= classes.size())
+        return UNKNOWN_CLASS;
+      classes.add(productClass);
+      at = classes.size() - 1;
+    }
+    return (byte) at;
+  }
+
+  static long encode(PdsVid vid) {
+    return ((long) vid.getMajorVersion() << 32) | vid.getMinorVersion();
+  }
+
+  static PdsVid decode(long vid) {
+    return new PdsVid((int) (vid >>> 32), (int) vid);
+  }
+
+  /**
+   * Add the products harvested since the given time, all of them when null, to lids.
+   *
+   * @return the latest harvest time seen
+   */
+  private String scan(String since, Map<String, Versions> lids) throws IOException {
+    BoolQueryBuilder query = QueryBuilders.boolQuery();
+    String latest = since;
+
+    ProductQueryBuilderUtil.addArchiveStatusFilter(query);
+    if (since != null)
+      query.must(QueryBuilders.rangeQuery(HARVEST_TIME).gte(since + "||-" + OVERLAP));
+
+    HitIterator products = new HitIterator(PAGE_SIZE, this.connection.getRestHighLevelClient(),
+        new SearchRequest().indices(this.connection.getRegistryIndex())
+            .source(new SearchSourceBuilder().query(query).fetchSource(
+                new String[] {"lidvid", PRODUCT_CLASS, HARVEST_TIME}, null)),
+        HitIterator.REGISTRY_CURSOR);
+    for (Map<String, Object> product : products) {
+      String harvested = first(product.get(HARVEST_TIME));
+      PdsLidVid lidvid;
+
+      try {
+        lidvid = PdsLidVid.fromString(first(product.get("lidvid")));
+      } catch (IllegalArgumentException | NullPointerException e) {
+        log.warn("Version index skips the product with lidvid " + product.get("lidvid"));
+        continue;
+      }
+
+      long vid = encode(lidvid.getVid());
+      byte productClass = classOf(first(product.get(PRODUCT_CLASS)));
+      lids.compute(lidvid.getLid().toString(),
+          (lid, versions) -> versions == null
+              ? new Versions(new long[] {vid}, new byte[] {productClass})
+              : versions.with(vid, productClass));
+      if (harvested != null && (latest == null || latest.compareTo(harvested) < 0))
+        latest = harvested;
+    }
+    return latest;
+  }
+
+  /**
+   * @return the latest ops:Harvest_Info/ops:harvest_date_time of the registry index in milliseconds
+   *         since the epoch, -Infinity when it is empty
+   */
+  public static double latestHarvest(ConnectionContext connection) throws IOException {
+    SearchRequest request = new SearchRequest().indices(connection.getRegistryIndex()).source(
+        new SearchSourceBuilder().size(0).aggregation(AggregationBuilders.max("harvested").field(
+            HARVEST_TIME)));
+    Max latest = connection.getRestHighLevelClient().search(request, RequestOptions.DEFAULT)
+        .getAggregations().get("harvested");
+    return latest.getValue();
+  }
+
+  private static boolean supports(GroupConstraint preset) {
+    return preset == null || (preset.all().keySet().stream().allMatch(PRODUCT_CLASS::equals)
+        && preset.any().keySet().stream().allMatch(PRODUCT_CLASS::equals)
+        && preset.not().keySet().stream().allMatch(PRODUCT_CLASS::equals));
+  }
+
+  // the same as ProductQueryBuilderUtil.addPresetCriteria() where all and any are both must
+  static boolean allows(GroupConstraint preset, byte productClass) {
+    if (preset == null)
+      return true;
+
+    String name = productClass == NO_CLASS ? null : classes.get(productClass);
+    for (List<String> values : preset.all().values())
+      if (!values.stream().allMatch((value) -> value.equals(name)))
+        return false;
+    for (List<String> values : preset.any().values())
+      if (!values.stream().allMatch((value) -> value.equals(name)))
+        return false;
+    for (List<String> values : preset.not().values())
+      if (name != null && values.contains(name))
+        return false;
+    return true;
+  }
+
+  private static boolean constrains(GroupConstraint preset) {
+    return preset != null
+        && !(preset.all().isEmpty() && preset.any().isEmpty() && preset.not().isEmpty());
+  }
+
+  private static Versions lookup(String lid, GroupConstraint preset) {
+    Map<String, Versions> index = lids;
+    Versions versions = index == null || !supports(preset) ? null : index.get(lid);
+
+    if (versions != null && constrains(preset) && versions.unknown())
+      versions = null;
+
+    if (index != null) {
+      Counter counter = versions == null ? misses : hits;
+      if (counter != null)
+        counter.increment();
+    }
+    return versions;
+  }
+
+  /**
+   * @return the latest version of lid when it is allowed by preset, null when the index cannot tell
+   *         or when that version is not allowed
+   */
+  public static PdsLidVid latest(String lid, GroupConstraint preset) {
+    Versions versions = lookup(lid, preset);
+    int last = versions == null ? -1 : versions.vids.length - 1;
+
+    if (last < 0 || !allows(preset, versions.classes[last]))
+      return null;
+    return new PdsLidVid(new PdsLid(lid), decode(versions.vids[last]));
+  }
+
+  /**
+   * @return the lidvids of lid allowed by preset, all of its versions or just the latest, null when
+   *         the index cannot tell
+   */
+  public static List<String> lidvids(String lid, boolean justLatest, GroupConstraint preset) {
+    Versions versions = lookup(lid, preset);
+    List<String> lidvids = new ArrayList<String>();
+
+    if (versions == null)
+      return null;
+    for (int at = justLatest ? versions.vids.length - 1 : 0; at < versions.vids.length; at++)
+      if (allows(preset, versions.classes[at]))
+        lidvids.add(new PdsLidVid(new PdsLid(lid), decode(versions.vids[at])).toString());
+    return lidvids;
+  }
+}
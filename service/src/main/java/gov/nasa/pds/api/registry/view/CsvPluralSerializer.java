@@ -9,14 +9,16 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.nasa.pds.model.WyriwygProducts;
 
 
 public class CsvPluralSerializer extends AbstractHttpMessageConverter<WyriwygProducts> {
-  public CsvPluralSerializer() {
+  final private ObjectWriter writer;
+
+  public CsvPluralSerializer(Mappers mappers) {
     super(new MediaType("application", "csv"), new MediaType("text", "csv"));
+    this.writer = mappers.getJson();
   }
 
   @Override
@@ -33,13 +35,10 @@ public class CsvPluralSerializer extends AbstractHttpMessageConverter<WyriwygPro
   @Override
   protected void writeInternal(WyriwygProducts t, HttpOutputMessage outputMessage)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-
     OutputStream os = outputMessage.getBody();
     OutputStreamWriter wr = new OutputStreamWriter(os);
     Utilities.fix(t.getSummary());
-    WyriwygSerializer.writeCSV(t, wr, mapper);
+    WyriwygSerializer.writeCSV(t, wr, this.writer);
     wr.close();
   }
 }
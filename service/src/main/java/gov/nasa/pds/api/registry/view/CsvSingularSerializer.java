@@ -11,14 +11,16 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import gov.nasa.pds.model.WyriwygProduct;
 
 public class CsvSingularSerializer extends AbstractHttpMessageConverter<WyriwygProduct> {
-  public CsvSingularSerializer() {
+  final private ObjectWriter writer;
+
+  public CsvSingularSerializer(Mappers mappers) {
     super(new MediaType("application", "csv"), new MediaType("text", "csv"));
+    this.writer = mappers.getJson();
   }
 
   @Override
@@ -35,12 +37,9 @@ public class CsvSingularSerializer extends AbstractHttpMessageConverter<WyriwygP
   @Override
   protected void writeInternal(WyriwygProduct t, HttpOutputMessage outputMessage)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-
     OutputStream os = outputMessage.getBody();
     OutputStreamWriter wr = new OutputStreamWriter(os);
-    WyriwygSerializer.writeCSV(t, wr, mapper);
+    WyriwygSerializer.writeCSV(t, wr, this.writer);
     wr.close();
   }
 }
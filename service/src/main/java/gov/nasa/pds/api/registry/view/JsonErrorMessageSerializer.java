@@ -13,8 +13,8 @@ import gov.nasa.pds.model.ErrorMessage;
 public class JsonErrorMessageSerializer extends AbstractHttpMessageConverter<ErrorMessage> {
   public JsonErrorMessageSerializer() {
     super(MediaType.APPLICATION_JSON, new MediaType("application", "kvp+json"),
-        new MediaType("application", "vnd.nasa.pds.pds4+json"), MediaType.ALL, new MediaType("*"),
-        MediaType.TEXT_HTML);
+        new MediaType("application", "vnd.nasa.pds.pds4+json"), MediaType.APPLICATION_NDJSON,
+        MediaType.ALL, new MediaType("*"), MediaType.TEXT_HTML);
   }
 
   @Override
@@ -0,0 +1,155 @@
+package gov.nasa.pds.api.registry.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * The whitespace of the hand made JSON documents (pds4+json, kvp+json) as a PrettyPrinter, so that
+ * they can be written with a JsonGenerator and look just like they always have. Without any layout
+ * it writes compact JSON with nothing between the root values, which is what x-ndjson lines need.
+ *
+ * The objects and arrays of each depth, the root container being 1, are given the text around and
+ * between their entries. A container is laid out only if its depth has a layout for its kind and
+ * its parent is laid out as well; anything else, like the values written by an ObjectWriter in the
+ * middle of the document, is compact.
+ *
+ * Instances are immutable and can be shared.
+ */
+final class JsonLayout implements PrettyPrinter {
+  private static final Level COMPACT_OBJECT = new Level("{", "", ",", ":", "}");
+  private static final Level COMPACT_ARRAY = new Level("[", "", ",", null, "]");
+
+  private static class Level {
+    final private String start, first, separator, colon, end;
+
+    Level(String start, String first, String separator, String colon, String end) {
+      this.start = start;
+      this.first = first;
+      this.separator = separator;
+      this.colon = colon;
+      this.end = end;
+    }
+  }
+
+  final private Level[] objects;
+  final private Level[] arrays;
+
+  JsonLayout() {
+    this(new Level[0], new Level[0]);
+  }
+
+  private JsonLayout(Level[] objects, Level[] arrays) {
+    this.objects = objects;
+    this.arrays = arrays;
+  }
+
+  private static Level[] with(Level[] levels, int depth, Level level) {
+    Level[] copy = Arrays.copyOf(levels, Math.max(levels.length, depth + 1));
+    copy[depth] = level;
+    return copy;
+  }
+
+  /**
+   * @return this layout with the objects of the given depth written as start, first entry, then
+   *         separator before each following entry, and end; colon goes between names and values
+   */
+  JsonLayout object(int depth, String start, String first, String separator, String colon,
+      String end) {
+    return new JsonLayout(with(this.objects, depth, new Level(start, first, separator, colon, end)),
+        this.arrays);
+  }
+
+  /** @return this layout with the arrays of the given depth written as start, values, end */
+  JsonLayout array(int depth, String start, String separator, String end) {
+    return new JsonLayout(this.objects,
+        with(this.arrays, depth, new Level(start, "", separator, null, end)));
+  }
+
+  /**
+   * @return a generator writing to os with this layout; its flush() does not flush os so that
+   *         something can be written to os directly in the middle of the document
+   */
+  JsonGenerator generator(ObjectWriter writer, OutputStream os) throws IOException {
+    JsonGenerator generator = writer.createGenerator(os);
+
+    generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    generator.setPrettyPrinter(this);
+    return generator;
+  }
+
+  private Level levelOf(JsonStreamContext context) {
+    int depth = 0;
+
+    for (JsonStreamContext c = context; !c.inRoot(); c = c.getParent())
+      depth++;
+
+    Level level = null;
+    for (JsonStreamContext c = context; !c.inRoot(); c = c.getParent(), depth--) {
+      Level[] levels = c.inArray() ? this.arrays : this.objects;
+
+      if (levels.length <= depth || levels[depth] == null)
+        return context.inArray() ? COMPACT_ARRAY : COMPACT_OBJECT;
+      if (level == null)
+        level = levels[depth];
+    }
+    return level;
+  }
+
+  private Level levelOf(JsonGenerator gen) {
+    return this.levelOf(gen.getOutputContext());
+  }
+
+  @Override
+  public void writeRootValueSeparator(JsonGenerator gen) throws IOException {}
+
+  @Override
+  public void writeStartObject(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).start);
+  }
+
+  @Override
+  public void writeEndObject(JsonGenerator gen, int nrOfEntries) throws IOException {
+    gen.writeRaw(this.levelOf(gen).end);
+  }
+
+  @Override
+  public void writeObjectEntrySeparator(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).separator);
+  }
+
+  @Override
+  public void writeObjectFieldValueSeparator(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).colon);
+  }
+
+  @Override
+  public void writeStartArray(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).start);
+  }
+
+  @Override
+  public void writeEndArray(JsonGenerator gen, int nrOfValues) throws IOException {
+    gen.writeRaw(this.levelOf(gen).end);
+  }
+
+  @Override
+  public void writeArrayValueSeparator(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).separator);
+  }
+
+  @Override
+  public void beforeArrayValues(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).first);
+  }
+
+  @Override
+  public void beforeObjectEntries(JsonGenerator gen) throws IOException {
+    gen.writeRaw(this.levelOf(gen).first);
+  }
+}
@@ -2,20 +2,21 @@ package gov.nasa.pds.api.registry.view;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.nasa.pds.model.WyriwygProducts;
 
 public class JsonPluralSerializer extends AbstractHttpMessageConverter<WyriwygProducts> {
-  public JsonPluralSerializer() {
+  final private ObjectWriter writer;
+
+  public JsonPluralSerializer(Mappers mappers) {
     super(new MediaType("application", "kvp+json"));
+    this.writer = mappers.getJson();
   }
 
   @Override
@@ -32,14 +33,8 @@ public class JsonPluralSerializer extends AbstractHttpMessageConverter<WyriwygPr
   @Override
   protected void writeInternal(WyriwygProducts t, HttpOutputMessage outputMessage)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-
     OutputStream os = outputMessage.getBody();
-
-    OutputStreamWriter wr = new OutputStreamWriter(os);
     Utilities.fix(t.getSummary());
-    WyriwygSerializer.writeJSON(t, wr, mapper);
-    wr.close();
+    WyriwygSerializer.writeJSON(t, os, this.writer);
   }
 }
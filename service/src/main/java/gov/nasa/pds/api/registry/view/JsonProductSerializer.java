@@ -7,12 +7,10 @@ import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class JsonProductSerializer extends MappingJackson2HttpMessageConverter {
-  public JsonProductSerializer() {
-    super();
+  public JsonProductSerializer(Mappers mappers) {
+    super(mappers.getJsonMapper());
 
     List<MediaType> supportMediaTypes = new ArrayList<MediaType>();
     supportMediaTypes.add(MediaType.APPLICATION_JSON);
@@ -21,10 +19,6 @@ public class JsonProductSerializer extends MappingJackson2HttpMessageConverter {
     supportMediaTypes.add(new MediaType("*"));
 
     this.setSupportedMediaTypes(supportMediaTypes);
-
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-    this.setObjectMapper(mapper);
   }
 
   @Override
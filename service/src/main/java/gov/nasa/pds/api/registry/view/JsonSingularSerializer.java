@@ -2,7 +2,6 @@ package gov.nasa.pds.api.registry.view;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -11,14 +10,16 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import gov.nasa.pds.model.WyriwygProduct;
 
 public class JsonSingularSerializer extends AbstractHttpMessageConverter<WyriwygProduct> {
-  public JsonSingularSerializer() {
+  final private ObjectWriter writer;
+
+  public JsonSingularSerializer(Mappers mappers) {
     super(new MediaType("application", "kvp+json"));
+    this.writer = mappers.getJson();
   }
 
   @Override
@@ -35,12 +36,7 @@ public class JsonSingularSerializer extends AbstractHttpMessageConverter<Wyriwyg
   @Override
   protected void writeInternal(WyriwygProduct t, HttpOutputMessage outputMessage)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-
     OutputStream os = outputMessage.getBody();
-    OutputStreamWriter wr = new OutputStreamWriter(os);
-    WyriwygSerializer.writeJSON(t, wr, mapper);
-    wr.close();
+    WyriwygSerializer.writeJSON(t, os, this.writer);
   }
 }
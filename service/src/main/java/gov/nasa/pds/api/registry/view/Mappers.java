@@ -0,0 +1,76 @@
+package gov.nasa.pds.api.registry.view;
+
+import javax.xml.stream.XMLOutputFactory;
+
+import com.ctc.wstx.api.WstxInputProperties;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+/**
+ * The Jackson mappers and StAX factories shared by all the serializers.
+ *
+ * They are configured once, here, and never changed afterwards which is what makes them safe to
+ * share between requests; it also keeps the serializer caches Jackson builds warm from one
+ * response to the next. Spring builds the one instance in WebMVCConfig.
+ */
+public class Mappers {
+  final private ObjectMapper jsonMapper;
+  final private ObjectWriter json;
+  final private ObjectWriter prettyJson;
+  final private XmlMapper xml;
+  final private XMLOutputFactory xmlOutput;
+  final private XMLOutputFactory pds4XmlOutput;
+
+  public Mappers() {
+    this.jsonMapper = new ObjectMapper();
+    this.jsonMapper.setSerializationInclusion(Include.NON_NULL);
+    // the serializers write several values with one generator and flush it when they are done
+    this.json = this.jsonMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.prettyJson = this.jsonMapper.writerWithDefaultPrettyPrinter();
+
+    this.xml = new XmlMapper();
+
+    this.xmlOutput = XMLOutputFactory.newFactory();
+    this.xmlOutput.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    this.xmlOutput.setProperty(WstxInputProperties.P_RETURN_NULL_FOR_DEFAULT_NAMESPACE, true);
+
+    this.pds4XmlOutput = XMLOutputFactory.newFactory();
+    this.pds4XmlOutput.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+  }
+
+  /**
+   * @return the mapper behind getJson() for the converters that insist on an ObjectMapper, it must
+   *         not be reconfigured
+   */
+  public ObjectMapper getJsonMapper() {
+    return this.jsonMapper;
+  }
+
+  /** @return compact JSON leaving out null values */
+  public ObjectWriter getJson() {
+    return this.json;
+  }
+
+  /** @return indented JSON leaving out null values */
+  public ObjectWriter getPrettyJson() {
+    return this.prettyJson;
+  }
+
+  /** @return the default XML mapping, it must not be reconfigured */
+  public XmlMapper getXml() {
+    return this.xml;
+  }
+
+  /** @return StAX writers of the application/xml documents */
+  public XMLOutputFactory getXmlOutput() {
+    return this.xmlOutput;
+  }
+
+  /** @return StAX writers of the pds4+xml documents */
+  public XMLOutputFactory getPds4XmlOutput() {
+    return this.pds4XmlOutput;
+  }
+}
@@ -0,0 +1,69 @@
+package gov.nasa.pds.api.registry.view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import gov.nasa.pds.model.PdsProduct;
+import gov.nasa.pds.model.PdsProducts;
+
+/**
+ * Writes PdsProducts as newline delimited JSON: each product, as application/json has it, on a line
+ * of its own then a last line {"summary":{...}}. Every line is sent to the client as soon as it is
+ * written so that it can be processed while the following hits are still being fetched.
+ *
+ * RequestAndResponseContext streams every plural x-ndjson response, whatever its limit, so that a
+ * product is converted only as its line is written. The hits are still fetched a page of 500 at a
+ * time: the first line waits for the first page.
+ */
+public class NdJsonPluralSerializer extends AbstractHttpMessageConverter<PdsProducts> {
+  final private ObjectWriter writer;
+
+  public NdJsonPluralSerializer(Mappers mappers) {
+    super(new MediaType("application", "x-ndjson"));
+    this.writer = mappers.getJson();
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PdsProducts.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected PdsProducts readInternal(Class<? extends PdsProducts> clazz,
+      HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+    return new PdsProducts();
+  }
+
+  @Override
+  protected void writeInternal(PdsProducts t, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    OutputStream os = outputMessage.getBody();
+    JsonGenerator gen = NdJsonSingularSerializer.LINES.generator(this.writer, os);
+
+    // iterate rather than index so that streamed lists are walked only once
+    if (t.getData() != null)
+      for (PdsProduct product : t.getData()) {
+        this.writer.writeValue(gen, product);
+        gen.writeRaw("\n");
+        gen.flush();
+        os.flush();
+      }
+
+    gen.writeStartObject();
+    gen.writeFieldName("summary");
+    this.writer.writeValue(gen, t.getSummary());
+    gen.writeEndObject();
+    gen.writeRaw("\n");
+    gen.close();
+  }
+}
@@ -0,0 +1,52 @@
+package gov.nasa.pds.api.registry.view;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import gov.nasa.pds.model.PdsProduct;
+
+/**
+ * Writes a PdsProduct as newline delimited JSON, which is the single line application/json would
+ * have given it.
+ */
+public class NdJsonSingularSerializer extends AbstractHttpMessageConverter<PdsProduct> {
+  // compact and, unlike the default, without a space between the root values
+  static final JsonLayout LINES = new JsonLayout();
+
+  final private ObjectWriter writer;
+
+  public NdJsonSingularSerializer(Mappers mappers) {
+    super(new MediaType("application", "x-ndjson"));
+    this.writer = mappers.getJson();
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PdsProduct.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected PdsProduct readInternal(Class<? extends PdsProduct> clazz,
+      HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+    return new PdsProduct();
+  }
+
+  @Override
+  protected void writeInternal(PdsProduct t, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    JsonGenerator gen = LINES.generator(this.writer, outputMessage.getBody());
+
+    this.writer.writeValue(gen, t);
+    gen.writeRaw("\n");
+    gen.close();
+  }
+}
@@ -2,11 +2,7 @@ package gov.nasa.pds.api.registry.view;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -14,9 +10,11 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+import gov.nasa.pds.api.registry.model.DeferredOutputStream;
+import gov.nasa.pds.api.registry.model.EncodedBlob;
 import gov.nasa.pds.model.Pds4Metadata;
 import gov.nasa.pds.model.Pds4Product;
 
@@ -26,13 +24,18 @@ import gov.nasa.pds.model.Pds4Product;
  * @author karpenko
  */
 public class Pds4JsonProductSerializer extends AbstractHttpMessageConverter<Pds4Product> {
-  private static final Logger log = LoggerFactory.getLogger(Pds4JsonProductSerializer.class);
+  private static final int LABEL_HEAD = 262144;
+  private static final JsonLayout LAYOUT =
+      new JsonLayout().object(1, "{\n", "", ",\n", ": ", "}\n");
+
+  final private ObjectWriter writer;
 
   /**
    * Constructor
    */
-  public Pds4JsonProductSerializer() {
+  public Pds4JsonProductSerializer(Mappers mappers) {
     super(new MediaType("application", "vnd.nasa.pds.pds4+json"));
+    this.writer = mappers.getJson();
   }
 
   @Override
@@ -49,37 +52,47 @@ public class Pds4JsonProductSerializer extends AbstractHttpMessageConverter<Pds4
   @Override
   public void writeInternal(Pds4Product product, HttpOutputMessage msg)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-
     OutputStream os = msg.getBody();
-    OutputStreamWriter wr = new OutputStreamWriter(os);
-    writeProduct(product, wr, mapper);
-    wr.close();
+    JsonGenerator gen = LAYOUT.generator(this.writer, os);
+    writeProduct(product, gen, os, this.writer);
+    gen.close();
   }
 
-  public static void writeProduct(Pds4Product product, Writer wr, ObjectMapper mapper)
-      throws IOException {
-    wr.write("{\n");
-
-    String value = mapper.writeValueAsString(product.getId());
-    wr.write("\"id\": " + value);
+  /**
+   * Write a product with gen. A label still encoded as a BLOB is decoded straight into os, the
+   * stream under gen, once its first LABEL_HEAD bytes are decoded. A label that cannot be decoded
+   * is thrown rather than leaving a truncated value in the JSON: when it fails within those bytes
+   * nothing of the label is sent and a singular response can still become an error.
+   */
+  public static void writeProduct(Pds4Product product, JsonGenerator gen, OutputStream os,
+      ObjectWriter writer) throws IOException {
+    gen.writeStartObject();
+    gen.writeStringField("id", product.getId());
 
     Pds4Metadata meta = product.getMetadata();
     if (meta != null) {
-      value = mapper.writeValueAsString(meta);
-      wr.write(",\n\"meta\": " + value);
+      gen.writeFieldName("meta");
+      writer.writeValue(gen, meta);
     }
 
-    if (product.getPds4() != null) {
+    if (product.getPds4() instanceof EncodedBlob) {
+      // only the separator, the label itself goes to os without passing through gen
+      DeferredOutputStream label = new DeferredOutputStream(os, LABEL_HEAD, () -> {
+        gen.writeFieldName("pds4");
+        gen.writeRawValue("");
+        gen.flush();
+      });
       try {
-        wr.write(",\n\"pds4\": ");
-        wr.write((String) product.getPds4());
-      } catch (Exception ex) {
-        log.warn("Could not extract BLOB from product " + product.getId(), ex);
+        ((EncodedBlob) product.getPds4()).writeTo(label);
+      } catch (IOException e) {
+        throw new IOException("Could not decode the label of " + product.getId(), e);
       }
+      label.finish();
+    } else if (product.getPds4() != null) {
+      gen.writeFieldName("pds4");
+      gen.writeRawValue(String.valueOf(product.getPds4()));
     }
 
-    wr.write("}\n");
+    gen.writeEndObject();
   }
 }
@@ -2,8 +2,6 @@ package gov.nasa.pds.api.registry.view;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.List;
 
 import org.springframework.http.HttpInputMessage;
@@ -13,8 +11,8 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import gov.nasa.pds.model.Pds4Product;
 import gov.nasa.pds.model.Pds4Products;
@@ -25,11 +23,18 @@ import gov.nasa.pds.model.Pds4Products;
  * @author karpenko
  */
 public class Pds4JsonProductsSerializer extends AbstractHttpMessageConverter<Pds4Products> {
+  private static final JsonLayout LAYOUT = new JsonLayout()
+      .object(1, "{\n", "", ",\n", ":", "\n}").array(2, "[", ",\n", "]")
+      .object(3, "{\n", "", ",\n", ": ", "}\n");
+
+  final private ObjectWriter writer;
+
   /**
    * Constructor
    */
-  public Pds4JsonProductsSerializer() {
+  public Pds4JsonProductsSerializer(Mappers mappers) {
     super(new MediaType("application", "vnd.nasa.pds.pds4+json"));
+    this.writer = mappers.getJson();
   }
 
   @Override
@@ -46,44 +51,34 @@ public class Pds4JsonProductsSerializer extends AbstractHttpMessageConverter<Pds
   @Override
   public void writeInternal(Pds4Products products, HttpOutputMessage msg)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-
     OutputStream os = msg.getBody();
-    OutputStreamWriter wr = new OutputStreamWriter(os);
+    JsonGenerator gen = LAYOUT.generator(this.writer, os);
 
     Utilities.fix(products.getSummary());
-    wr.write("{\n");
+    gen.writeStartObject();
 
     // Summary
-    wr.write("\"summary\":");
-    String value = mapper.writeValueAsString(products.getSummary());
-    wr.write(value);
-    wr.write(",\n");
+    gen.writeFieldName("summary");
+    this.writer.writeValue(gen, products.getSummary());
 
     // Data
-    wr.write("\"data\":[");
-    writeProducts(products.getData(), wr, mapper);
-    wr.write("]\n");
+    gen.writeArrayFieldStart("data");
+    writeProducts(products.getData(), gen, os);
+    gen.writeEndArray();
 
-    wr.write("}\n");
-    wr.close();
+    gen.writeEndObject();
+    gen.writeRaw("\n");
+    gen.close();
   }
 
-  private void writeProducts(List<Pds4Product> list, Writer wr, ObjectMapper mapper)
+  private void writeProducts(List<Pds4Product> list, JsonGenerator gen, OutputStream os)
       throws IOException {
     if (list == null)
       return;
 
-    int size = list.size();
-    for (int i = 0; i < size; i++) {
-      Pds4Product prod = list.get(i);
-      Pds4JsonProductSerializer.writeProduct(prod, wr, mapper);
-
-      if (i < size - 1) {
-        wr.write(",\n");
-      }
-    }
+    // iterate rather than index so that streamed lists are walked only once
+    for (Pds4Product prod : list)
+      Pds4JsonProductSerializer.writeProduct(prod, gen, os, this.writer);
   }
 
 }
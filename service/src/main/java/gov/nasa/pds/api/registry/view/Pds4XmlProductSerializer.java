@@ -1,5 +1,7 @@
 package gov.nasa.pds.api.registry.view;
 
+import gov.nasa.pds.api.registry.model.DeferredOutputStream;
+import gov.nasa.pds.api.registry.model.EncodedBlob;
 import gov.nasa.pds.model.Pds4Product;
 
 import java.io.IOException;
@@ -23,9 +25,15 @@ public class Pds4XmlProductSerializer extends AbstractHttpMessageConverter<Pds4P
   static final public String NAMESPACE_PREFIX_OPS = "ops";
   static final public String NAMESPACE_URL = "http://pds.nasa.gov/api";
   static final public String NAMESPACE_URL_OPS = "https://pds.nasa.gov/pds4/ops/v1";
+  private static final int LABEL_HEAD = 262144;
 
-  public Pds4XmlProductSerializer() {
+  final private XMLOutputFactory outputFactory;
+  final private XmlMapper mapper;
+
+  public Pds4XmlProductSerializer(Mappers mappers) {
     super(new MediaType("application", "vnd.nasa.pds.pds4+xml"));
+    this.outputFactory = mappers.getPds4XmlOutput();
+    this.mapper = mappers.getXml();
   }
 
   @Override
@@ -44,9 +52,7 @@ public class Pds4XmlProductSerializer extends AbstractHttpMessageConverter<Pds4P
       throws IOException, HttpMessageNotWritableException {
     try {
       OutputStream outputStream = outputMessage.getBody();
-      XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
-      outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", true);
-      XMLStreamWriter writer = outputFactory.createXMLStreamWriter(outputStream);
+      XMLStreamWriter writer = this.outputFactory.createXMLStreamWriter(outputStream);
       writer.setPrefix(Pds4XmlProductSerializer.NAMESPACE_PREFIX,
           Pds4XmlProductSerializer.NAMESPACE_URL);
       writer.setPrefix(NAMESPACE_PREFIX_OPS, NAMESPACE_URL_OPS);
@@ -54,18 +60,30 @@ public class Pds4XmlProductSerializer extends AbstractHttpMessageConverter<Pds4P
       writer.writeNamespace(Pds4XmlProductSerializer.NAMESPACE_PREFIX,
           Pds4XmlProductSerializer.NAMESPACE_URL);
       writer.writeNamespace(NAMESPACE_PREFIX_OPS, NAMESPACE_URL_OPS);
-      Pds4XmlProductSerializer.serialize(outputStream, writer, new XmlMapper(), product);
+      Pds4XmlProductSerializer.serialize(outputStream, writer, this.mapper, product);
       writer.writeEndElement();
       writer.close();
-    } catch (ClassCastException e) {
-      this.logger.error(
-          "For XML serialization, the Product object must be extended as ProductWithXmlLabel: "
-              + e.getMessage());
-    } catch (Exception e) {
-      this.logger.error("Unexpected for no known reason.", e);
+    } catch (XMLStreamException e) {
+      throw new HttpMessageNotWritableException("Could not write product " + product.getId(), e);
+    }
+  }
+
+  /** only the start tag, the label itself goes to the stream without passing through writer */
+  private static void startLabel(XMLStreamWriter writer) throws IOException {
+    try {
+      writer.writeStartElement(Pds4XmlProductSerializer.NAMESPACE_URL, "pds4");
+      writer.writeCharacters("");
+      writer.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
     }
   }
 
+  /**
+   * Write the elements of a product. A label still encoded as a BLOB is decoded straight into
+   * stream, the one under writer, once its first LABEL_HEAD bytes are decoded; a label that cannot
+   * be decoded is thrown so that the response is aborted rather than sent as a truncated document.
+   */
   static public void serialize(OutputStream stream, XMLStreamWriter writer, XmlMapper mapper,
       Pds4Product product) throws IOException, XMLStreamException {
     writer.writeStartElement(Pds4XmlProductSerializer.NAMESPACE_URL, "id");
@@ -78,11 +96,20 @@ public class Pds4XmlProductSerializer extends AbstractHttpMessageConverter<Pds4P
         .replace("</Pds4Metadata>", "").getBytes("UTF-8"));
     stream.flush();
     writer.writeEndElement();
-    writer.writeStartElement(Pds4XmlProductSerializer.NAMESPACE_URL, "pds4");
-    writer.writeCharacters("");
-    writer.flush();
-    stream.write(String.valueOf(product.getPds4()).getBytes("UTF8"));
-    stream.flush();
+    if (product.getPds4() instanceof EncodedBlob) {
+      DeferredOutputStream label =
+          new DeferredOutputStream(stream, LABEL_HEAD, () -> startLabel(writer));
+      try {
+        ((EncodedBlob) product.getPds4()).writeTo(label);
+      } catch (IOException e) {
+        throw new IOException("Could not decode the label of " + product.getId(), e);
+      }
+      label.finish();
+    } else {
+      startLabel(writer);
+      stream.write(String.valueOf(product.getPds4()).getBytes("UTF8"));
+      stream.flush();
+    }
     writer.writeEndElement();
     writer.flush();
   }
@@ -4,10 +4,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -28,10 +27,13 @@ public class Pds4XmlProductsSerializer extends AbstractHttpMessageConverter<Pds4
    * 
    */
 
-  private static final Logger log = LoggerFactory.getLogger(Pds4XmlProductsSerializer.class);
+  final private XMLOutputFactory outputFactory;
+  final private XmlMapper mapper;
 
-  public Pds4XmlProductsSerializer() {
+  public Pds4XmlProductsSerializer(Mappers mappers) {
     super(new MediaType("application", "vnd.nasa.pds.pds4+xml"));
+    this.outputFactory = mappers.getPds4XmlOutput();
+    this.mapper = mappers.getXml();
   }
 
   @Override
@@ -51,9 +53,7 @@ public class Pds4XmlProductsSerializer extends AbstractHttpMessageConverter<Pds4
       throws IOException, HttpMessageNotWritableException {
     try {
       OutputStream outputStream = outputMessage.getBody();
-      XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
-      outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", true);
-      XMLStreamWriter writer = outputFactory.createXMLStreamWriter(outputStream);
+      XMLStreamWriter writer = this.outputFactory.createXMLStreamWriter(outputStream);
       Utilities.fix(products.getSummary());
       writer.setPrefix(Pds4XmlProductSerializer.NAMESPACE_PREFIX,
           Pds4XmlProductSerializer.NAMESPACE_URL);
@@ -63,25 +63,19 @@ public class Pds4XmlProductsSerializer extends AbstractHttpMessageConverter<Pds4
       writer.writeNamespace(Pds4XmlProductSerializer.NAMESPACE_PREFIX_OPS,
           Pds4XmlProductSerializer.NAMESPACE_URL_OPS);
       Summary summary = products.getSummary();
-      XmlMapper xmlMapper = new XmlMapper();
-      xmlMapper.writeValue(writer, summary);
+      this.mapper.writeValue(writer, summary);
       writer.writeStartElement(Pds4XmlProductSerializer.NAMESPACE_URL, "data");
       for (Pds4Product product : products.getData()) {
         writer.writeStartElement(Pds4XmlProductSerializer.NAMESPACE_URL, "product");
-        Pds4XmlProductSerializer.serialize(outputStream, writer, new XmlMapper(), product);
+        Pds4XmlProductSerializer.serialize(outputStream, writer, this.mapper, product);
         writer.writeEndElement();
       }
       writer.writeEndElement(); // data
       writer.writeEndElement(); // products
       writer.close();
       outputStream.close();
-    } catch (ClassCastException e) {
-      this.logger
-          .error("For XML serialization, Product object must be extended to ProductWithXmlLabel: "
-              + e.getMessage());
-    } catch (Exception e) {
-      Pds4XmlProductsSerializer.log
-          .info("error while serializing products in xml " + e.getMessage());
+    } catch (XMLStreamException e) {
+      throw new HttpMessageNotWritableException("Could not write the products", e);
     }
   }
 
@@ -12,14 +12,16 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import gov.nasa.pds.model.PdsProduct;
 
 public class PdsProductTextHtmlSerializer extends AbstractHttpMessageConverter<PdsProduct> {
-  public PdsProductTextHtmlSerializer() {
+  final private ObjectWriter writer;
+
+  public PdsProductTextHtmlSerializer(Mappers mappers) {
     super(MediaType.TEXT_HTML);
+    this.writer = mappers.getPrettyJson();
   }
 
   @Override
@@ -36,12 +38,10 @@ public class PdsProductTextHtmlSerializer extends AbstractHttpMessageConverter<P
   @Override
   protected void writeInternal(PdsProduct t, HttpOutputMessage outputMessage)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
     OutputStream os = outputMessage.getBody();
     OutputStreamWriter wr = new OutputStreamWriter(os, Charset.defaultCharset());
-    mapper.setSerializationInclusion(Include.NON_NULL);
     wr.write("<html><body><h1>JSON as text</h1><p><pre>");
-    wr.write(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(t));
+    wr.write(this.writer.writeValueAsString(t));
     wr.write("</pre></p></body></html>");
     wr.close();
   }
@@ -16,15 +16,19 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.ctc.wstx.api.WstxInputProperties;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 public class PdsProductXMLSerializer extends AbstractHttpMessageConverter<PdsProduct> {
   static final public String NAMESPACE_PREFIX = "pds_api";
   static final public String NAMESPACE_URL = "http://pds.nasa.gov/api";
 
-  public PdsProductXMLSerializer() {
+  final private XMLOutputFactory outputFactory;
+  final private XmlMapper mapper;
+
+  public PdsProductXMLSerializer(Mappers mappers) {
     super(MediaType.APPLICATION_XML, MediaType.TEXT_XML);
+    this.outputFactory = mappers.getXmlOutput();
+    this.mapper = mappers.getXml();
   }
 
   @Override
@@ -43,11 +47,8 @@ public class PdsProductXMLSerializer extends AbstractHttpMessageConverter<PdsPro
       throws IOException, HttpMessageNotWritableException {
     try {
       OutputStream outputStream = outputMessage.getBody();
-      XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
-      outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", true);
-      outputFactory.setProperty(WstxInputProperties.P_RETURN_NULL_FOR_DEFAULT_NAMESPACE, true);
-      XMLStreamWriter writer = outputFactory.createXMLStreamWriter(outputStream);
-      new XmlMapper().writeValue(writer, product);
+      XMLStreamWriter writer = this.outputFactory.createXMLStreamWriter(outputStream);
+      this.mapper.writeValue(writer, product);
     } catch (ClassCastException e) {
       this.logger.error(
           "For XML serialization, the Product object must be extended as ProductWithXmlLabel: "
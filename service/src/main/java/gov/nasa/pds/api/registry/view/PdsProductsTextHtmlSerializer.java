@@ -12,14 +12,16 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import gov.nasa.pds.model.PdsProducts;
 
 public class PdsProductsTextHtmlSerializer extends AbstractHttpMessageConverter<PdsProducts> {
-  public PdsProductsTextHtmlSerializer() {
+  final private ObjectWriter writer;
+
+  public PdsProductsTextHtmlSerializer(Mappers mappers) {
     super(MediaType.TEXT_HTML);
+    this.writer = mappers.getPrettyJson();
   }
 
   @Override
@@ -36,13 +38,11 @@ public class PdsProductsTextHtmlSerializer extends AbstractHttpMessageConverter<
   @Override
   protected void writeInternal(PdsProducts t, HttpOutputMessage outputMessage)
       throws IOException, HttpMessageNotWritableException {
-    ObjectMapper mapper = new ObjectMapper();
     OutputStream os = outputMessage.getBody();
     OutputStreamWriter wr = new OutputStreamWriter(os, Charset.defaultCharset());
-    mapper.setSerializationInclusion(Include.NON_NULL);
     Utilities.fix(t.getSummary());
     wr.write("<html><body><h1>JSON as text</h1><p><pre>");
-    wr.write(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(t));
+    wr.write(this.writer.writeValueAsString(t));
     wr.write("</pre></p></body></html>");
     wr.close();
   }
@@ -17,12 +17,16 @@ import org.springframework.http.converter.AbstractHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
-import com.ctc.wstx.api.WstxInputProperties;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 
 public class PdsProductsXMLSerializer extends AbstractHttpMessageConverter<PdsProducts> {
-  public PdsProductsXMLSerializer() {
+  final private XMLOutputFactory outputFactory;
+  final private XmlMapper mapper;
+
+  public PdsProductsXMLSerializer(Mappers mappers) {
     super(MediaType.APPLICATION_XML, MediaType.TEXT_XML);
+    this.outputFactory = mappers.getXmlOutput();
+    this.mapper = mappers.getXml();
   }
 
   @Override
@@ -41,17 +45,13 @@ public class PdsProductsXMLSerializer extends AbstractHttpMessageConverter<PdsPr
       throws IOException, HttpMessageNotWritableException {
     try {
       OutputStream outputStream = outputMessage.getBody();
-      XmlMapper mapper = new XmlMapper();
-      XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
       Utilities.fix(products.getSummary());
-      outputFactory.setProperty("javax.xml.stream.isRepairingNamespaces", true);
-      outputFactory.setProperty(WstxInputProperties.P_RETURN_NULL_FOR_DEFAULT_NAMESPACE, true);
-      XMLStreamWriter writer = outputFactory.createXMLStreamWriter(outputStream);
+      XMLStreamWriter writer = this.outputFactory.createXMLStreamWriter(outputStream);
       writer.setDefaultNamespace(null);
       writer.writeStartElement("PdsProducts");
-      mapper.writeValue(writer, products.getSummary());
+      this.mapper.writeValue(writer, products.getSummary());
       for (PdsProduct product : products.getData())
-        mapper.writeValue(writer, product);
+        this.mapper.writeValue(writer, product);
       writer.writeEndElement();
       writer.close();
       outputStream.close();
@@ -1,17 +1,30 @@
 package gov.nasa.pds.api.registry.view;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import gov.nasa.pds.api.registry.model.WyriwygSource;
 import gov.nasa.pds.model.WyriwygProduct;
 import gov.nasa.pds.model.WyriwygProductKeyValuePair;
 import gov.nasa.pds.model.WyriwygProducts;
 
 final class WyriwygSerializer {
+  // rows of a plural CSV sent to the client at a time, one page of streamed hits
+  private static final int FLUSH_ROWS = 500;
+  private static final JsonLayout PRODUCT =
+      new JsonLayout().object(1, "{\n", "  ", ",\n  ", ":", "}");
+  private static final JsonLayout PRODUCTS = new JsonLayout()
+      .object(1, "{\n", "  ", ",\n  ", ":", "\n}").array(2, "[", ",\n", "\n  ]")
+      .object(3, "    {\n", "      ", ",\n      ", ":", "    }");
+
   private static void writeHeader(List<String> labels, Writer wr) throws IOException {
     int n = 0;
     for (String label : labels) {
@@ -23,37 +36,84 @@ final class WyriwygSerializer {
     wr.write("\n");
   }
 
-  private static void writeJSON(WyriwygProduct product, Writer wr, ObjectMapper mapper,
-      String indent) throws IOException {
-    int n = 0;
-    wr.write(indent + "{\n");
-    for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs()) {
-      if (0 < n)
-        wr.write(",\n");
-      wr.write(indent + "  \"" + kvp.getKey() + "\":" + mapper.writeValueAsString(kvp.getValue()));
-      n++;
+  /** the cells of a CSV row, reused from one product to the next */
+  private static class Row {
+    final private Map<String, Integer> columns = new HashMap<String, Integer>();
+    final private int[] cellOf; // the cell of each column, labels can repeat
+    final private char[][] cells;
+    final private int[] lengths; // -1 for no value
+
+    Row(List<String> labels) {
+      this.cellOf = new int[labels.size()];
+      this.cells = new char[labels.size()][];
+      this.lengths = new int[labels.size()];
+      for (int i = 0; i < labels.size(); i++) {
+        this.columns.putIfAbsent(labels.get(i), i);
+        this.cellOf[i] = this.columns.get(labels.get(i));
+        this.cells[i] = new char[64];
+      }
     }
-    wr.write(indent + "}");
-  }
 
-  private static void writeRow(List<String> labels, WyriwygProduct product, Writer wr,
-      ObjectMapper om) throws IOException {
-    HashMap<String, String> row = new HashMap<String, String>();
-    int n = 0;
+    private char[] cell(String key, int length) {
+      Integer column = this.columns.get(key);
 
-    for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs())
-      row.put(kvp.getKey(), kvp.getValue());
-    for (String label : labels) {
-      if (0 < n)
-        wr.write(",");
-      if (row.containsKey(label))
-        wr.write("\"" + row.get(label) + "\"");
-      n++;
+      if (column == null)
+        return null;
+      if (this.cells[column].length < length)
+        this.cells[column] = new char[Math.max(2 * this.cells[column].length, length)];
+      this.lengths[column] = length;
+      return this.cells[column];
+    }
+
+    void set(String key, char[] value, int length) {
+      char[] cell = this.cell(key, length);
+      if (cell != null)
+        System.arraycopy(value, 0, cell, 0, length);
+    }
+
+    void set(String key, String value) {
+      char[] cell = this.cell(key, value.length());
+      if (cell != null)
+        value.getChars(0, value.length(), cell, 0);
+    }
+
+    void write(WyriwygProduct product, Writer wr) throws IOException {
+      Arrays.fill(this.lengths, -1);
+      if (product instanceof WyriwygSource)
+        ((WyriwygSource) product).forEachField(this::set);
+      else
+        for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs())
+          this.set(kvp.getKey(), String.valueOf(kvp.getValue()));
+
+      for (int i = 0; i < this.cellOf.length; i++) {
+        int cell = this.cellOf[i];
+
+        if (0 < i)
+          wr.write(",");
+        if (0 <= this.lengths[cell]) {
+          wr.write('"');
+          wr.write(this.cells[cell], 0, this.lengths[cell]);
+          wr.write('"');
+        }
+      }
+      wr.write("\n");
     }
-    wr.write("\n");
   }
 
-  public static void writeCSV(WyriwygProduct product, Writer wr, ObjectMapper mapper)
+  private static void writeJSON(WyriwygProduct product, JsonGenerator gen) throws IOException {
+    gen.writeStartObject();
+    if (product instanceof WyriwygSource)
+      ((WyriwygSource) product).forEachField((key, value, length) -> {
+        gen.writeFieldName(key);
+        gen.writeString(value, 0, length);
+      });
+    else
+      for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs())
+        gen.writeStringField(kvp.getKey(), kvp.getValue());
+    gen.writeEndObject();
+  }
+
+  public static void writeCSV(WyriwygProduct product, Writer wr, ObjectWriter mapper)
       throws IOException {
     List<String> labels = new ArrayList<String>();
 
@@ -61,41 +121,47 @@ final class WyriwygSerializer {
       labels.add(kvp.getKey());
     Collections.sort(labels);
     WyriwygSerializer.writeHeader(labels, wr);
-    WyriwygSerializer.writeRow(labels, product, wr, mapper);
+    new Row(labels).write(product, wr);
     wr.close();
   }
 
-  public static void writeCSV(WyriwygProducts products, Writer wr, ObjectMapper mapper)
+  public static void writeCSV(WyriwygProducts products, Writer wr, ObjectWriter mapper)
       throws IOException {
     Collections.sort(products.getSummary().getProperties());
     WyriwygSerializer.writeHeader(products.getSummary().getProperties(), wr);
-    for (WyriwygProduct product : products.getData())
-      WyriwygSerializer.writeRow(products.getSummary().getProperties(), product, wr, mapper);
+
+    Row row = new Row(products.getSummary().getProperties());
+    int rows = 0;
+    for (WyriwygProduct product : products.getData()) {
+      row.write(product, wr);
+      if (++rows % FLUSH_ROWS == 0)
+        wr.flush();
+    }
     wr.close();
   }
 
-  public static void writeJSON(WyriwygProduct product, Writer wr, ObjectMapper mapper)
+  public static void writeJSON(WyriwygProduct product, OutputStream os, ObjectWriter writer)
       throws IOException {
-    WyriwygSerializer.writeJSON(product, wr, mapper, "");
-    wr.write("\n");
-    wr.close();
+    JsonGenerator gen = PRODUCT.generator(writer, os);
+
+    WyriwygSerializer.writeJSON(product, gen);
+    gen.writeRaw("\n");
+    gen.close();
   }
 
-  public static void writeJSON(WyriwygProducts products, Writer wr, ObjectMapper mapper)
+  public static void writeJSON(WyriwygProducts products, OutputStream os, ObjectWriter writer)
       throws IOException {
-    int n = 0;
-    // Summary
-    wr.write("{\n  \"summary\":" + mapper.writeValueAsString(products.getSummary()) + ",\n");
+    JsonGenerator gen = PRODUCTS.generator(writer, os);
 
-    // Data
-    wr.write("  \"data\":[");
-    for (WyriwygProduct product : products.getData()) {
-      if (0 < n)
-        wr.write(",\n");
-      WyriwygSerializer.writeJSON(product, wr, mapper, "    ");
-      n++;
-    }
-    wr.write("\n  ]\n}\n");
-    wr.close();
+    gen.writeStartObject();
+    gen.writeFieldName("summary");
+    writer.writeValue(gen, products.getSummary());
+    gen.writeArrayFieldStart("data");
+    for (WyriwygProduct product : products.getData())
+      WyriwygSerializer.writeJSON(product, gen);
+    gen.writeEndArray();
+    gen.writeEndObject();
+    gen.writeRaw("\n");
+    gen.close();
   }
 }
@@ -0,0 +1,137 @@
+package gov.nasa.pds.api.registry.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.ControlContext;
+import gov.nasa.pds.api.registry.exceptions.LidVidNotFoundException;
+import gov.nasa.pds.api.registry.model.Pds4ProductFactory;
+import gov.nasa.pds.api.registry.search.QuickSearch;
+import gov.nasa.pds.api.registry.search.VersionIndex;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The validators of a product asked for by lidvid, what the product was made of being memoized as
+ * the fetch of the product or a conditional request would, so that nothing is searched for.
+ */
+public class ConditionalRequestTest {
+  private static final String LIDVID = "urn:nasa:pds:a:b::1.0";
+  private static final ControlContext CONTROL = Mockito.mock(ControlContext.class);
+
+  static {
+    ConnectionContext connection = Mockito.mock(ConnectionContext.class);
+    Mockito.when(connection.getRegistryIndex()).thenReturn("registry");
+    Mockito.when(CONTROL.getConnection()).thenReturn(connection);
+  }
+
+  private static URIParameters parameters(String harvested, String status) {
+    URIParameters parameters =
+        Mockito.spy(new URIParameters(new URIParametersBuilder().setIdentifier(LIDVID)));
+
+    Mockito.doReturn(LIDVID).when(parameters).getLidVid();
+    if (harvested != null)
+      QuickSearch.remember(CONTROL.getConnection(), parameters, LIDVID,
+          Map.of(VersionIndex.HARVEST_TIME, List.of(harvested),
+              Pds4ProductFactory.FLD_TRACK_META_ARCHIVE_STATUS, List.of(status)));
+    return parameters;
+  }
+
+  private static ConditionalRequest conditional(URIParameters parameters, String ifNoneMatch,
+      long ifModifiedSince) {
+    HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+
+    Mockito.when(request.getRequestURI()).thenReturn("/products/" + LIDVID);
+    Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(ifNoneMatch);
+    Mockito.when(request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE)).thenReturn(ifModifiedSince);
+    return new ConditionalRequest(request, parameters, 60L, 86400L);
+  }
+
+  private static HttpHeaders validated(String harvested, String status) {
+    URIParameters parameters = parameters(harvested, status);
+    ResponseEntity<Object> response = conditional(parameters, null, -1L).validated(CONTROL,
+        parameters, new ResponseEntity<Object>("product", HttpStatus.OK));
+
+    Assertions.assertEquals("product", response.getBody());
+    return response.getHeaders();
+  }
+
+  private static ResponseEntity<Object> notModified(String ifNoneMatch, long ifModifiedSince,
+      String harvested, String status) throws IOException, LidVidNotFoundException {
+    URIParameters parameters = parameters(harvested, status);
+    return conditional(parameters, ifNoneMatch, ifModifiedSince).notModified(CONTROL, parameters);
+  }
+
+  @Test
+  public void testValidated() {
+    HttpHeaders headers = validated("2023-01-01T00:00:00Z", "archived");
+
+    Assertions.assertTrue(headers.getETag().startsWith("\""));
+    Assertions.assertEquals(1672531200000L, headers.getLastModified());
+    Assertions.assertEquals("max-age=86400, public", headers.getCacheControl());
+    Assertions.assertEquals(headers.getETag(),
+        validated("2023-01-01T00:00:00.000Z", "archived").getETag());
+  }
+
+  @Test
+  public void testNotKnown() {
+    HttpHeaders headers = validated(null, null);
+
+    Assertions.assertNull(headers.getETag());
+    Assertions.assertEquals(-1L, headers.getLastModified());
+    Assertions.assertEquals("max-age=86400, public", headers.getCacheControl());
+  }
+
+  @Test
+  public void testIfNoneMatch() throws IOException, LidVidNotFoundException {
+    String tag = validated("2023-01-01T00:00:00Z", "archived").getETag();
+    ResponseEntity<Object> response =
+        notModified("\"x\", " + tag, -1L, "2023-01-01T00:00:00Z", "archived");
+
+    Assertions.assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    Assertions.assertEquals(tag, response.getHeaders().getETag());
+    Assertions.assertEquals(HttpStatus.NOT_MODIFIED,
+        notModified("W/" + tag, -1L, "2023-01-01T00:00:00Z", "archived").getStatusCode());
+    Assertions.assertEquals(HttpStatus.NOT_MODIFIED,
+        notModified("*", -1L, "2023-01-01T00:00:00Z", "archived").getStatusCode());
+  }
+
+  @Test
+  public void testChangedUnderTheSameLidvid() throws IOException, LidVidNotFoundException {
+    String tag = validated("2023-01-01T00:00:00Z", "archived").getETag();
+
+    // harvested again
+    Assertions.assertNull(notModified(tag, -1L, "2023-06-01T00:00:00Z", "archived"));
+    // archive status changed without a harvest
+    Assertions.assertNull(notModified(tag, -1L, "2023-01-01T00:00:00Z", "certified"));
+    // the hash of the request alone is not enough
+    Assertions.assertNull(notModified(tag.substring(0, tag.indexOf('-') + 1) + "x\"", -1L,
+        "2023-01-01T00:00:00Z", "archived"));
+  }
+
+  @Test
+  public void testIfModifiedSince() throws IOException, LidVidNotFoundException {
+    Assertions.assertEquals(HttpStatus.NOT_MODIFIED,
+        notModified(null, 1672531200999L, "2023-01-01T00:00:00.500Z", "archived").getStatusCode());
+    Assertions.assertNull(
+        notModified(null, 1672531199000L, "2023-01-01T00:00:00Z", "archived"));
+  }
+
+  @Test
+  public void testListsNotConditional() {
+    URIParameters parameters = parameters(null, null);
+
+    Assertions.assertFalse(new Member(true, false).conditional(parameters));
+    Assertions.assertFalse(new Member(false, true).conditional(parameters));
+    Assertions.assertFalse(new GroupReferencingId().conditional(parameters));
+    Assertions.assertFalse(new IdReferencingGroup().conditional(parameters));
+  }
+}
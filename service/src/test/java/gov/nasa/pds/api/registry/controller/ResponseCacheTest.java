@@ -0,0 +1,110 @@
+package gov.nasa.pds.api.registry.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+import gov.nasa.pds.api.registry.UserContext;
+
+public class ResponseCacheTest {
+  private static final ConnectionContext CONNECTION = Mockito.mock(ConnectionContext.class);
+
+  private static void set(ResponseCache cache, String name, Object value)
+      throws ReflectiveOperationException {
+    Field field = ResponseCache.class.getDeclaredField(name);
+    field.setAccessible(true);
+    field.set(cache, value);
+  }
+
+  @BeforeAll
+  @SuppressWarnings("unchecked")
+  public static void init() throws ReflectiveOperationException {
+    ResponseCache cache = new ResponseCache();
+    ObjectProvider<RequestMappingHandlerAdapter> adapter = Mockito.mock(ObjectProvider.class);
+    RequestMappingHandlerAdapter converters = Mockito.mock(RequestMappingHandlerAdapter.class);
+
+    Mockito.when(converters.getMessageConverters()).thenReturn(
+        List.<HttpMessageConverter<?>>of(new StringHttpMessageConverter(StandardCharsets.UTF_8)));
+    Mockito.when(adapter.getObject()).thenReturn(converters);
+    Mockito.when(CONNECTION.getRegistryIndex()).thenReturn("registry");
+    set(cache, "propBytes", 1L << 20);
+    set(cache, "propMaxEntryBytes", 1000);
+    set(cache, "propOffHeapMinBytes", 100);
+    set(cache, "adapter", adapter);
+    cache.init();
+  }
+
+  private static UserContext content(String lidvid) {
+    UserContext content = Mockito.mock(UserContext.class);
+
+    Mockito.when(content.getAccept()).thenReturn("text/plain");
+    Mockito.when(content.getSingletonResultExpected()).thenReturn(true);
+    Mockito.when(content.getIdentifier()).thenReturn(lidvid);
+    Mockito.when(content.getLidVid()).thenReturn(lidvid);
+    Mockito.when(content.getGroup()).thenReturn("");
+    Mockito.when(content.getFields()).thenReturn(List.of());
+    Mockito.when(content.getMemo()).thenReturn(new ConcurrentHashMap<>());
+    return content;
+  }
+
+  private static byte[] read(Object body) throws IOException {
+    Assertions.assertTrue(body instanceof Resource, String.valueOf(body));
+    try (InputStream in = ((Resource) body).getInputStream()) {
+      return in.readAllBytes();
+    }
+  }
+
+  @Test
+  public void testHeap() throws IOException {
+    UserContext content = content("urn:nasa:pds:a:heap::1.0");
+
+    ResponseCache.put(CONNECTION, content, new ResponseEntity<Object>("small", HttpStatus.OK));
+    ResponseEntity<Object> cached = ResponseCache.get(CONNECTION, content);
+    Assertions.assertArrayEquals("small".getBytes(StandardCharsets.UTF_8),
+        (byte[]) cached.getBody());
+    Assertions.assertTrue(
+        MediaType.TEXT_PLAIN.isCompatibleWith(cached.getHeaders().getContentType()));
+  }
+
+  @Test
+  public void testOffHeap() throws IOException {
+    UserContext content = content("urn:nasa:pds:a:direct::1.0");
+    String body = "x".repeat(500);
+
+    ResponseEntity<Object> sent =
+        ResponseCache.put(CONNECTION, content, new ResponseEntity<Object>(body, HttpStatus.OK));
+    Assertions.assertEquals(body, new String(read(sent.getBody()), StandardCharsets.UTF_8));
+
+    Object cached = ResponseCache.get(CONNECTION, content).getBody();
+    Assertions.assertEquals(500L, ((Resource) cached).contentLength());
+    // every reader starts from the beginning
+    Assertions.assertEquals(body, new String(read(cached), StandardCharsets.UTF_8));
+    Assertions.assertEquals(body, new String(read(cached), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testTooLarge() throws IOException {
+    UserContext content = content("urn:nasa:pds:a:large::1.0");
+    ResponseEntity<Object> response = new ResponseEntity<Object>("y".repeat(1001), HttpStatus.OK);
+
+    Assertions.assertSame(response, ResponseCache.put(CONNECTION, content, response));
+    Assertions.assertNull(ResponseCache.get(CONNECTION, content));
+  }
+}
@@ -0,0 +1,60 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import gov.nasa.pds.api.registry.ConnectionContext;
+
+public class MembershipCacheTest {
+  private static final String LIDVID = "urn:nasa:pds:a:b::1.0";
+  private static final List<String> MEMBERS = List.of("urn:nasa:pds:a:b:c::1.0");
+
+  private MembershipCache membership;
+
+  @BeforeEach
+  public void init() {
+    this.membership = new MembershipCache();
+    ReflectionTestUtils.setField(this.membership, "propCacheSize", 1000L);
+    ReflectionTestUtils.setField(this.membership, "propMaxList", 100);
+    ReflectionTestUtils.setField(this.membership, "propCheckSeconds", 3600L);
+    ReflectionTestUtils.setField(this.membership, "connection",
+        Mockito.mock(ConnectionContext.class));
+    this.membership.init();
+  }
+
+  @AfterEach
+  public void shutdown() {
+    this.membership.shutdown();
+    ReflectionTestUtils.setField(MembershipCache.class, "cache", null);
+  }
+
+  @Test
+  public void testKept() {
+    MembershipCache.put(MembershipCache.Edge.BUNDLE_CHILDREN, ProductVersionSelector.ALL, LIDVID,
+        MEMBERS, MembershipCache.generation());
+
+    Assertions.assertEquals(MEMBERS, MembershipCache.get(MembershipCache.Edge.BUNDLE_CHILDREN,
+        ProductVersionSelector.ALL, LIDVID));
+    Assertions.assertNull(MembershipCache.get(MembershipCache.Edge.BUNDLE_CHILDREN,
+        ProductVersionSelector.LATEST, LIDVID));
+  }
+
+  @Test
+  public void testHarvestedDuringTheWalk() {
+    long walked = MembershipCache.generation();
+    ((AtomicLong) ReflectionTestUtils.getField(MembershipCache.class, "generation"))
+        .incrementAndGet();
+    MembershipCache.put(MembershipCache.Edge.BUNDLE_CHILDREN, ProductVersionSelector.ALL, LIDVID,
+        MEMBERS, walked);
+
+    Assertions.assertNull(MembershipCache.get(MembershipCache.Edge.BUNDLE_CHILDREN,
+        ProductVersionSelector.ALL, LIDVID));
+  }
+}
@@ -1,8 +1,8 @@
 package gov.nasa.pds.api.registry.model;
 
 import gov.nasa.pds.api.registry.LidvidsContext;
-import org.junit.Assert;
-import org.junit.Test;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
@@ -17,28 +17,28 @@ public class PaginationLidvidBuilderTest {
   public void testSimpleAddTrimNothing() {
     PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(0, 5));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {"1", "2", "3", "4", "5"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"1", "2", "3", "4", "5"}, pageBuilder.page().toArray());
   }
 
   @Test
   public void testSimpleAddTrimEverything() {
     PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(0, 0));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
   }
 
   @Test
   public void testSimpleAddTrimHead() {
     PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(2, 3));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {"3", "4", "5"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"3", "4", "5"}, pageBuilder.page().toArray());
   }
 
   @Test
   public void testSimpleAddTrimHeadWithExtraData() {
     PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(2, 2));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {"3", "4"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"3", "4"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -46,21 +46,21 @@ public class PaginationLidvidBuilderTest {
     PaginationLidvidBuilder pageBuilder =
         new PaginationLidvidBuilder(new LidvidsContextStub(2, 100));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {"3", "4", "5"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"3", "4", "5"}, pageBuilder.page().toArray());
   }
 
   @Test
   public void testSimpleAddTrimTail() {
     PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(0, 3));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {"1", "2", "3"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"1", "2", "3"}, pageBuilder.page().toArray());
   }
 
   @Test
   public void testSimpleAddTrimHeadAndTail() {
     PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(1, 3));
     pageBuilder.addAll(simpleInput);
-    Assert.assertArrayEquals(new String[] {"2", "3", "4"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"2", "3", "4"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -69,7 +69,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"1", "2", "3", "4", "5", "6", "7", "8", "9"},
+    Assertions.assertArrayEquals(new String[] {"1", "2", "3", "4", "5", "6", "7", "8", "9"},
         pageBuilder.page().toArray());
   }
 
@@ -79,7 +79,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -88,7 +88,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -97,7 +97,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -106,7 +106,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"2", "3", "4", "5", "6", "7", "8", "9"},
+    Assertions.assertArrayEquals(new String[] {"2", "3", "4", "5", "6", "7", "8", "9"},
         pageBuilder.page().toArray());
   }
 
@@ -116,7 +116,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"5", "6", "7", "8", "9"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"5", "6", "7", "8", "9"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -125,7 +125,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"8", "9"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"8", "9"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -134,7 +134,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"2", "3"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"2", "3"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -143,7 +143,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"2", "3", "4", "5", "6"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"2", "3", "4", "5", "6"}, pageBuilder.page().toArray());
   }
 
 
@@ -154,7 +154,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"2", "3", "4", "5", "6", "7", "8", "9"},
+    Assertions.assertArrayEquals(new String[] {"2", "3", "4", "5", "6", "7", "8", "9"},
         pageBuilder.page().toArray());
   }
 
@@ -165,7 +165,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"5", "6", "7", "8", "9"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"5", "6", "7", "8", "9"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -175,7 +175,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"8", "9"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"8", "9"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -184,7 +184,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"1", "2", "3", "4", "5", "6", "7", "8"},
+    Assertions.assertArrayEquals(new String[] {"1", "2", "3", "4", "5", "6", "7", "8"},
         pageBuilder.page().toArray());
   }
 
@@ -194,7 +194,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"1", "2", "3", "4", "5"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"1", "2", "3", "4", "5"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -203,7 +203,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"1", "2"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"1", "2"}, pageBuilder.page().toArray());
   }
 
   @Test
@@ -212,7 +212,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"2"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"2"}, pageBuilder.page().toArray());
   }
 
 
@@ -222,7 +222,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"5"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"5"}, pageBuilder.page().toArray());
   }
 
 
@@ -232,7 +232,7 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"8"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"8"}, pageBuilder.page().toArray());
   }
 
 
@@ -242,7 +242,29 @@ public class PaginationLidvidBuilderTest {
     for (List<String> input : complexInput) {
       pageBuilder.addAll(input);
     }
-    Assert.assertArrayEquals(new String[] {"3", "4", "5", "6", "7"}, pageBuilder.page().toArray());
+    Assertions.assertArrayEquals(new String[] {"3", "4", "5", "6", "7"}, pageBuilder.page().toArray());
+  }
+
+  @Test
+  public void testIsFull() {
+    PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(2, 3));
+    pageBuilder.addAll(complexInput.get(0));
+    Assertions.assertFalse(pageBuilder.isFull());
+    pageBuilder.addAll(complexInput.get(1));
+    Assertions.assertTrue(pageBuilder.isFull());
+    Assertions.assertArrayEquals(new String[] {"3", "4", "5"}, pageBuilder.page().toArray());
+  }
+
+  @Test
+  public void testStopAndSetTotal() {
+    PaginationLidvidBuilder pageBuilder = new PaginationLidvidBuilder(new LidvidsContextStub(0, 2));
+    pageBuilder.addAll(simpleInput);
+    pageBuilder.stop();
+    Assertions.assertEquals(5, pageBuilder.total());
+    Assertions.assertTrue(pageBuilder.totalIsLowerBound());
+    pageBuilder.setTotal(42);
+    Assertions.assertEquals(42, pageBuilder.total());
+    Assertions.assertFalse(pageBuilder.totalIsLowerBound());
   }
 }
 
@@ -0,0 +1,61 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.opensearch.search.SearchHit;
+
+import gov.nasa.pds.api.registry.search.HitIterator;
+import gov.nasa.pds.model.Summary;
+
+public class StreamedHitListTest {
+
+  @Test
+  public void testFailedPageAbortsTheWalk() {
+    HitIterator hits = Mockito.mock(HitIterator.class);
+    Mockito.when(hits.getExpectedCount()).thenReturn(-1);
+    Mockito.when(hits.hasNext()).thenReturn(true);
+    Mockito.when(hits.nextHit()).thenReturn(new SearchHit(7))
+        .thenThrow(new UncheckedIOException(new IOException("page 1 failed")));
+
+    Iterator<Integer> walk = StreamedHitList.ofHits(hits, SearchHit::docId).iterator();
+
+    Assertions.assertTrue(walk.hasNext());
+    Assertions.assertEquals(7, walk.next());
+    Assertions.assertTrue(walk.hasNext());
+    Assertions.assertThrows(UncheckedIOException.class, walk::next);
+  }
+
+  @Test
+  public void testWalkedOnce() {
+    HitIterator hits = Mockito.mock(HitIterator.class);
+    Mockito.when(hits.getExpectedCount()).thenReturn(0);
+    StreamedHitList<Integer> list = StreamedHitList.ofHits(hits, SearchHit::docId);
+
+    Assertions.assertFalse(list.iterator().hasNext());
+    Assertions.assertThrows(IllegalStateException.class, list::iterator);
+  }
+
+  @Test
+  public void testUncountedHits() {
+    ProductBusinessLogic[] formats = {new PdsProductBusinessObject(),
+        new Pds4ProductBusinessObject(true), new WyriwygBusinessObject()};
+
+    for (ProductBusinessLogic format : formats) {
+      HitIterator hits = Mockito.mock(HitIterator.class);
+      Mockito.when(hits.getExpectedCount()).thenReturn(-1);
+      Assertions.assertEquals(-1, format.setResponse(hits, new Summary(), List.of()),
+          format.getClass().getSimpleName());
+
+      hits = Mockito.mock(HitIterator.class);
+      Mockito.when(hits.getExpectedCount()).thenReturn(742);
+      Assertions.assertEquals(742, format.setResponse(hits, new Summary(), List.of()),
+          format.getClass().getSimpleName());
+    }
+  }
+}
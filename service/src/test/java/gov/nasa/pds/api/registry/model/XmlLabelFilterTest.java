@@ -0,0 +1,66 @@
+package gov.nasa.pds.api.registry.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class XmlLabelFilterTest {
+  /** filter label written in one go and byte by byte, which must agree */
+  private static String filter(String label) throws IOException {
+    byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream bulk = new ByteArrayOutputStream();
+    ByteArrayOutputStream single = new ByteArrayOutputStream();
+    XmlLabelFilter filter = new XmlLabelFilter(bulk);
+
+    filter.write(bytes, 0, bytes.length);
+    filter.close();
+    filter = new XmlLabelFilter(single);
+    for (byte b : bytes)
+      filter.write(b);
+    filter.close();
+    Assertions.assertEquals(bulk.toString(StandardCharsets.UTF_8),
+        single.toString(StandardCharsets.UTF_8));
+    return bulk.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testProcessingInstructions() throws IOException {
+    Assertions.assertEquals("<Product_Bundle>\n  <title>a ? b > c</title>\n</Product_Bundle>",
+        filter("\r\n <?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+            + "<?xml-model href=\"https://pds.nasa.gov/pds4/pds/v1/PDS4_PDS_1K00.sch\"?>\r\n"
+            + "<Product_Bundle>\r\n  <title>a ? b > c</title>\r\n</Product_Bundle>\r\n\r\n"));
+    Assertions.assertEquals("<a/>", filter("<??><?x ??><a/>"));
+    Assertions.assertEquals("<a/><", filter("<a/><"));
+    Assertions.assertEquals("<a/>", filter("<a/><?unterminated"));
+  }
+
+  @Test
+  public void testNamespaces() throws IOException {
+    String label = "<Product_Observational xmlns=\"http://pds.nasa.gov/pds4/pds/v1\"\n"
+        + "    xmlns:geom=\"http://pds.nasa.gov/pds4/geom/v1\">\n"
+        + "  <geom:Geometry><geom:SPICE_Kernel_Files/></geom:Geometry>\n"
+        + "</Product_Observational>";
+
+    Assertions.assertEquals(label, filter("<?xml version=\"1.0\"?>\n" + label));
+  }
+
+  @Test
+  public void testComments() throws IOException {
+    String label = "<a>\n  <!-- see <?note?> -- and -> or --->\n  <b/><!---->\n</a>";
+
+    Assertions.assertEquals(label, filter(label));
+    Assertions.assertEquals("<!-- unterminated <?x?>", filter("<!-- unterminated <?x?>"));
+    Assertions.assertEquals("<a/><!DOCTYPE x><b/>", filter("<a/><!DOCTYPE x><?x?><b/>"));
+  }
+
+  @Test
+  public void testCData() throws IOException {
+    String label = "<a><![CDATA[ if (x <? y) ] ]> ]]]></a>";
+
+    Assertions.assertEquals(label, filter(label));
+    Assertions.assertEquals("<a><![CDATA[1]]></a>", filter("<a><![CDATA[1]]><?x?></a>"));
+  }
+}
@@ -1,5 +1,7 @@
 package gov.nasa.pds.api.registry.opensearch;
 
+import java.lang.reflect.Field;
+
 import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CodePointCharStream;
@@ -15,9 +17,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import com.google.common.cache.CacheBuilder;
+
 import gov.nasa.pds.api.registry.lexer.SearchLexer;
 import gov.nasa.pds.api.registry.lexer.SearchParser;
 import gov.nasa.pds.api.registry.model.Antlr4SearchListener;
+import gov.nasa.pds.api.registry.model.ProductQueryBuilderUtil;
 
 public class Antlr4SearchListenerTest {
   private class NegativeTester implements Executable {
@@ -235,4 +240,24 @@ public class Antlr4SearchListenerTest {
       Assertions.assertThrows(ParseCancellationException.class, actor);
     }
   }
+
+  @Test
+  public void testCachedQueryIsNotShared() throws ReflectiveOperationException {
+    Field cache = ProductQueryBuilderUtil.class.getDeclaredField("queryCache");
+    cache.setAccessible(true);
+    cache.set(null, CacheBuilder.newBuilder().maximumSize(10).build());
+    try {
+      String qs = "lid eq \"urn:nasa:pds:insight_rad\"";
+      BoolQueryBuilder first = ProductQueryBuilderUtil.parseQueryString(qs);
+      BoolQueryBuilder second = ProductQueryBuilderUtil.parseQueryString(" " + qs);
+
+      Assertions.assertNotSame(first, second);
+      Assertions.assertEquals(first, second);
+      first.filter(new TermQueryBuilder("archive_status", "archived"));
+      Assertions.assertEquals(second.filter().size(), 0);
+      Assertions.assertEquals(ProductQueryBuilderUtil.parseQueryString(qs), second);
+    } finally {
+      cache.set(null, null);
+    }
+  }
 }
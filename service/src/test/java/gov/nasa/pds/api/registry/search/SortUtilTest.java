@@ -0,0 +1,83 @@
+package gov.nasa.pds.api.registry.search;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.FieldSortBuilder;
+import org.opensearch.search.sort.SortOrder;
+
+import gov.nasa.pds.api.registry.exceptions.UnsupportedSearchProperty;
+
+public class SortUtilTest {
+
+  @Test
+  public void testValid() throws UnsupportedSearchProperty {
+    List<SortUtil.Key> keys = SortUtil.parse(Arrays.asList("asc(lidvid)",
+        " DESC( ops:Harvest_Info.ops:harvest_date_time ) ", "title", "", null, "  "));
+
+    Assertions.assertEquals(3, keys.size());
+    Assertions.assertEquals("lidvid", keys.get(0).field);
+    Assertions.assertEquals(SortOrder.ASC, keys.get(0).order);
+    Assertions.assertEquals("ops:Harvest_Info/ops:harvest_date_time", keys.get(1).field);
+    Assertions.assertEquals(SortOrder.DESC, keys.get(1).order);
+    Assertions.assertEquals("title", keys.get(2).field);
+    Assertions.assertEquals(SortOrder.ASC, keys.get(2).order);
+  }
+
+  @Test
+  public void testInvalid() {
+    for (String sort : new String[] {"asc(lidvid", "asc()", "up(lidvid)", "asc(lidvid))",
+        "(lidvid)", "lidvid)"})
+      Assertions.assertThrows(UnsupportedSearchProperty.class,
+          () -> SortUtil.parse(Collections.singletonList(sort)), sort);
+  }
+
+  @Test
+  public void testInjectionLike() {
+    for (String sort : new String[] {"asc(lidvid) desc(title)", "desc(a),asc(b)",
+        "desc(a) , asc(b)", "asc(lidvid)); drop", "asc(lidvid) or (1 eq 1)",
+        "asc(title(\"x\"))"})
+      Assertions.assertThrows(UnsupportedSearchProperty.class,
+          () -> SortUtil.parse(Collections.singletonList(sort)), sort);
+  }
+
+  @Test
+  public void testApply() {
+    SearchSourceBuilder source = new SearchSourceBuilder();
+
+    SortUtil.apply(source, Arrays.asList("desc(title)"));
+    Assertions.assertEquals(2, source.sorts().size());
+    Assertions.assertEquals("title", ((FieldSortBuilder) source.sorts().get(0)).getFieldName());
+    Assertions.assertEquals(SortOrder.DESC, source.sorts().get(0).order());
+    Assertions.assertEquals(SortUtil.TIE_BREAKER,
+        ((FieldSortBuilder) source.sorts().get(1)).getFieldName());
+
+    source = new SearchSourceBuilder();
+    SortUtil.apply(source, Arrays.asList("desc(lidvid)"));
+    Assertions.assertEquals(1, source.sorts().size());
+
+    source = new SearchSourceBuilder();
+    SortUtil.apply(source, Collections.emptyList());
+    Assertions.assertEquals(1, source.sorts().size());
+    Assertions.assertEquals(SortUtil.TIE_BREAKER,
+        ((FieldSortBuilder) source.sorts().get(0)).getFieldName());
+  }
+
+  @Test
+  public void testCursorKeepsTheTieBreaker() {
+    SearchSourceBuilder source = new SearchSourceBuilder();
+
+    SortUtil.apply(source, Arrays.asList("desc(title)"));
+    HitIterator.prepare(new SearchRequest().source(source), 500, HitIterator.REGISTRY_CURSOR);
+    Assertions.assertEquals(2, source.sorts().size());
+
+    source = new SearchSourceBuilder();
+    HitIterator.prepare(new SearchRequest().source(source), 500, HitIterator.REGISTRY_CURSOR);
+    Assertions.assertEquals(1, source.sorts().size());
+  }
+}
@@ -0,0 +1,141 @@
+package gov.nasa.pds.api.registry.search;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.TermQueryBuilder;
+
+import gov.nasa.pds.api.registry.GroupConstraint;
+import gov.nasa.pds.api.registry.model.ProductQueryBuilderUtil;
+import gov.nasa.pds.api.registry.model.identifiers.PdsVid;
+import gov.nasa.pds.api.registry.util.GroupConstraintImpl;
+
+public class VersionIndexTest {
+  private static final String[] NAMES =
+      {"Product_Bundle", "Product_Collection", "Product_Observational"};
+  private static final byte[] CLASSES = new byte[NAMES.length + 1];
+
+  @BeforeAll
+  public static void classes() {
+    // before testClassOverflow fills the table
+    for (int i = 0; i < NAMES.length; i++)
+      CLASSES[i] = VersionIndex.classOf(NAMES[i]);
+    CLASSES[NAMES.length] = VersionIndex.classOf(null);
+  }
+
+  /** what OpenSearch would tell of a product of the given class for a query of term queries */
+  private static boolean matches(QueryBuilder query, String productClass) {
+    if (query instanceof TermQueryBuilder)
+      return ((TermQueryBuilder) query).fieldName().equals("product_class")
+          && ((TermQueryBuilder) query).value().equals(productClass);
+
+    BoolQueryBuilder bool = (BoolQueryBuilder) query;
+    Assertions.assertTrue(bool.should().isEmpty());
+    return bool.must().stream().allMatch((clause) -> matches(clause, productClass))
+        && bool.filter().stream().allMatch((clause) -> matches(clause, productClass))
+        && bool.mustNot().stream().noneMatch((clause) -> matches(clause, productClass));
+  }
+
+  @Test
+  public void testAllowsAsPresetCriteria() {
+    Map<String, List<String>> bundle = Map.of("product_class", List.of("Product_Bundle"));
+    Map<String, List<String>> both =
+        Map.of("product_class", List.of("Product_Bundle", "Product_Collection"));
+    Map<String, List<String>> none = Map.of();
+    GroupConstraint[] presets = {GroupConstraintImpl.empty(), GroupConstraintImpl.buildAll(bundle),
+        GroupConstraintImpl.buildAny(bundle), GroupConstraintImpl.buildNot(bundle),
+        GroupConstraintImpl.buildAll(both), GroupConstraintImpl.buildAny(both),
+        GroupConstraintImpl.buildNot(both), GroupConstraintImpl.build(bundle, none, both),
+        GroupConstraintImpl.buildAllNot(bundle,
+            Map.of("product_class", List.of("Product_Collection")))};
+
+    for (GroupConstraint preset : presets) {
+      BoolQueryBuilder query = QueryBuilders.boolQuery();
+      ProductQueryBuilderUtil.addPresetCriteria(query, preset);
+
+      for (int i = 0; i < CLASSES.length; i++) {
+        String name = i < NAMES.length ? NAMES[i] : null;
+        Assertions.assertEquals(matches(query, name), VersionIndex.allows(preset, CLASSES[i]),
+            preset.all() + " " + preset.any() + " " + preset.not() + " " + name);
+      }
+    }
+    Assertions.assertTrue(VersionIndex.allows(null, CLASSES[0]));
+  }
+
+  @Test
+  public void testEncode() {
+    PdsVid[] vids = {new PdsVid(1, 0), new PdsVid(1, 9), new PdsVid(1, 10), new PdsVid(2, 0),
+        new PdsVid(10, 1), new PdsVid(Integer.MAX_VALUE, Integer.MAX_VALUE)};
+
+    for (int i = 0; i < vids.length; i++) {
+      long encoded = VersionIndex.encode(vids[i]);
+
+      Assertions.assertEquals(vids[i], VersionIndex.decode(encoded));
+      if (0 < i)
+        Assertions.assertTrue(VersionIndex.encode(vids[i - 1]) < encoded, vids[i].toString());
+    }
+  }
+
+  @Test
+  public void testWith() {
+    VersionIndex.Versions versions =
+        new VersionIndex.Versions(new long[] {encode(2, 0)}, new byte[] {CLASSES[0]});
+
+    VersionIndex.Versions added = versions.with(encode(3, 0), CLASSES[1])
+        .with(encode(1, 0), CLASSES[2]).with(encode(2, 5), CLASSES[3]);
+    Assertions.assertArrayEquals(
+        new long[] {encode(1, 0), encode(2, 0), encode(2, 5), encode(3, 0)}, added.vids);
+    Assertions.assertArrayEquals(new byte[] {CLASSES[2], CLASSES[0], CLASSES[3], CLASSES[1]},
+        added.classes);
+    Assertions.assertArrayEquals(new long[] {encode(2, 0)}, versions.vids);
+
+    Assertions.assertSame(added, added.with(encode(2, 0), CLASSES[0]));
+    VersionIndex.Versions changed = added.with(encode(2, 0), CLASSES[1]);
+    Assertions.assertSame(added.vids, changed.vids);
+    Assertions.assertEquals(CLASSES[1], changed.classes[1]);
+    Assertions.assertEquals(CLASSES[0], added.classes[1]);
+  }
+
+  private static long encode(int major, int minor) {
+    return VersionIndex.encode(new PdsVid(major, minor));
+  }
+
+  @Test
+  public void testClassOverflow() throws ReflectiveOperationException {
+    byte last = 0;
+
+    for (int i = 0; last != VersionIndex.UNKNOWN_CLASS; i++)
+      last = VersionIndex.classOf("Product_Test_" + i);
+    Assertions.assertEquals(CLASSES[0], VersionIndex.classOf(NAMES[0]));
+    Assertions.assertEquals(VersionIndex.NO_CLASS, VersionIndex.classOf(null));
+
+    Field lids = VersionIndex.class.getDeclaredField("lids");
+    lids.setAccessible(true);
+    Map<String, VersionIndex.Versions> index =
+        new ConcurrentHashMap<String, VersionIndex.Versions>();
+    index.put("urn:nasa:pds:a", new VersionIndex.Versions(new long[] {encode(1, 0), encode(2, 0)},
+        new byte[] {CLASSES[0], VersionIndex.UNKNOWN_CLASS}));
+    lids.set(null, index);
+    try {
+      GroupConstraint bundles =
+          GroupConstraintImpl.buildAll(Map.of("product_class", List.of(NAMES[0])));
+
+      Assertions.assertNull(VersionIndex.latest("urn:nasa:pds:a", bundles));
+      Assertions.assertNull(VersionIndex.lidvids("urn:nasa:pds:a", false, bundles));
+      Assertions.assertEquals("urn:nasa:pds:a::2.0",
+          VersionIndex.latest("urn:nasa:pds:a", null).toString());
+      Assertions.assertEquals(List.of("urn:nasa:pds:a::1.0", "urn:nasa:pds:a::2.0"),
+          VersionIndex.lidvids("urn:nasa:pds:a", false, null));
+    } finally {
+      lids.set(null, null);
+    }
+  }
+}
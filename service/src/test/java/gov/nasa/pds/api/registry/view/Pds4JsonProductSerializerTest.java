@@ -0,0 +1,123 @@
+package gov.nasa.pds.api.registry.view;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import gov.nasa.pds.api.registry.model.EncodedBlob;
+import gov.nasa.pds.model.Pds4Metadata;
+import gov.nasa.pds.model.Pds4MetadataOpsTrackingMeta;
+import gov.nasa.pds.model.Pds4Product;
+import gov.nasa.pds.model.Pds4Products;
+import gov.nasa.pds.model.Summary;
+
+public class Pds4JsonProductSerializerTest {
+  private static final ObjectWriter WRITER = new Mappers().getJson();
+
+  private static String blob(String label) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+      deflater.write(label.getBytes(StandardCharsets.UTF_8));
+    }
+    return Base64.getEncoder().encodeToString(compressed.toByteArray());
+  }
+
+  private static String write(Object pds4) throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    JsonGenerator gen = mapper.getFactory().createGenerator(os);
+    Pds4Product product = new Pds4Product();
+
+    product.setId("urn:nasa:pds:a:b::1.0");
+    product.setPds4(pds4);
+    Pds4JsonProductSerializer.writeProduct(product, gen, os, mapper.writer());
+    gen.close();
+    return os.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testLabel() throws IOException {
+    String json = write(new EncodedBlob(blob("{\"Product_Collection\": {}}")));
+
+    Assertions.assertEquals(
+        "{\"id\":\"urn:nasa:pds:a:b::1.0\",\"pds4\":{\"Product_Collection\": {}}}", json);
+    Assertions.assertEquals(1, new ObjectMapper().readTree(json).get("pds4").size());
+  }
+
+  @Test
+  public void testLabelNotDecoded() throws IOException {
+    String truncated = blob("{\"Product_Collection\": {}}");
+    truncated = truncated.substring(0, truncated.length() / 2 & ~3);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    ObjectMapper mapper = new ObjectMapper();
+    JsonGenerator gen = mapper.getFactory().createGenerator(os);
+    Pds4Product product = new Pds4Product();
+
+    product.setId("urn:nasa:pds:a:b::1.0");
+    product.setPds4(new EncodedBlob(truncated));
+    Assertions.assertThrows(IOException.class,
+        () -> Pds4JsonProductSerializer.writeProduct(product, gen, os, mapper.writer()));
+    gen.flush();
+    Assertions.assertFalse(os.toString(StandardCharsets.UTF_8).contains("pds4"));
+  }
+
+  /** what Pds4JsonProductsSerializer wrote before it used a JsonGenerator */
+  private static String old(Pds4Products products) throws IOException {
+    StringBuilder wr = new StringBuilder("{\n\"summary\":");
+    int n = 0;
+
+    wr.append(WRITER.writeValueAsString(products.getSummary())).append(",\n\"data\":[");
+    for (Pds4Product product : products.getData()) {
+      if (0 < n)
+        wr.append(",\n");
+      wr.append("{\n\"id\": " + WRITER.writeValueAsString(product.getId()));
+      if (product.getMetadata() != null)
+        wr.append(",\n\"meta\": " + WRITER.writeValueAsString(product.getMetadata()));
+      if (product.getPds4() != null)
+        wr.append(",\n\"pds4\": " + product.getPds4());
+      wr.append("}\n");
+      n++;
+    }
+    return wr.append("]\n}\n").toString();
+  }
+
+  @Test
+  public void testProducts() throws IOException {
+    Pds4Products products = new Pds4Products();
+    Pds4Product full = new Pds4Product();
+    Pds4Product bare = new Pds4Product();
+    Pds4Product label = new Pds4Product();
+
+    full.setId("urn:nasa:pds:a:b::1.0");
+    full.setMetadata(new Pds4Metadata().nodeName("PDS_GEO").opsColonTrackingMeta(
+        new Pds4MetadataOpsTrackingMeta().opsColonArchiveStatus("archived")));
+    full.setPds4("{\"Product_Collection\": {\"a\": [1, null]}}");
+    bare.setId("urn:nasa:pds:a:\"c\"::1.0");
+    label.setId("urn:nasa:pds:a:d::1.0");
+    label.setPds4("{}");
+    products.setSummary(new Summary().hits(3).took(3).start(0).limit(100)
+        .properties(new ArrayList<String>(List.of("ops:Harvest_Info.ops:node_name"))));
+    products.setData(List.of(full, bare, label));
+
+    MockHttpOutputMessage msg = new MockHttpOutputMessage();
+    new Pds4JsonProductsSerializer(new Mappers()).writeInternal(products, msg);
+    Assertions.assertEquals(old(products), msg.getBodyAsString(StandardCharsets.UTF_8));
+
+    products.setData(List.of());
+    msg = new MockHttpOutputMessage();
+    new Pds4JsonProductsSerializer(new Mappers()).writeInternal(products, msg);
+    Assertions.assertEquals(old(products), msg.getBodyAsString(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,202 @@
+package gov.nasa.pds.api.registry.view;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import gov.nasa.pds.api.registry.model.WyriwygSource;
+import gov.nasa.pds.model.Summary;
+import gov.nasa.pds.model.WyriwygProduct;
+import gov.nasa.pds.model.WyriwygProductKeyValuePair;
+import gov.nasa.pds.model.WyriwygProducts;
+
+/**
+ * The kvp+json and csv documents written from the _source of the hits against what the
+ * serializers wrote before they streamed it, which are kept here as they were. The old ones read
+ * the source into a HashMap; it is read in order here since the streamed source keeps its order.
+ */
+public class WyriwygSerializerTest {
+  private static final ObjectWriter WRITER = new Mappers().getJson();
+  private static final String[] SOURCES = {
+      "{\"lidvid\":\"urn:nasa:pds:a:b::1.0\",\"title\":\"say \\\"hi\\\"\\n\\t\\\\ \\u0001\","
+          + "\"ops:Harvest_Info/ops:harvest_date_time\":\"2023-01-01T00:00:00Z\"}",
+      "{\"pds:Citation_Information/pds:author_list\":[\"a\",\"b, c\",null,[]],"
+          + "\"ref\":{\"x\":1,\"y\":[1.5,-2e3,null],\"z\":{\"w\":true,\"v\":false},\"e\":{}},"
+          + "\"none\":null,\"big\":12345678901,\"huge\":123456789012345678901234567890,"
+          + "\"neg\":-0.0,\"empty\":\"\"}",
+      "{}"};
+
+  /** the key value pairs getSourceAsMap() gave, in the order of the source */
+  private static WyriwygProduct old(String source) {
+    WyriwygProduct product = new WyriwygProduct();
+    Map<String, Object> map =
+        XContentHelper.convertToMap(new BytesArray(source), true, XContentType.JSON).v2();
+
+    for (Map.Entry<String, Object> pair : map.entrySet()) {
+      WyriwygProductKeyValuePair kvp = new WyriwygProductKeyValuePair();
+      kvp.setKey(pair.getKey().replace('/', '.'));
+      kvp.setValue(String.valueOf(pair.getValue()));
+      product.addKeyValuePairsItem(kvp);
+    }
+    return product;
+  }
+
+  private static WyriwygProducts products(List<WyriwygProduct> data) {
+    WyriwygProducts products = new WyriwygProducts();
+    List<String> properties = new ArrayList<String>();
+
+    for (WyriwygProduct product : data)
+      for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs())
+        if (!properties.contains(kvp.getKey()))
+          properties.add(kvp.getKey());
+    products.setSummary(new Summary().hits(data.size()).took(3).start(0).limit(100)
+        .sort(Arrays.asList()).properties(properties));
+    products.setData(data);
+    return products;
+  }
+
+  private static void oldJSON(WyriwygProduct product, Writer wr, String indent)
+      throws IOException {
+    int n = 0;
+    wr.write(indent + "{\n");
+    for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs()) {
+      if (0 < n)
+        wr.write(",\n");
+      wr.write(indent + "  \"" + kvp.getKey() + "\":" + WRITER.writeValueAsString(kvp.getValue()));
+      n++;
+    }
+    wr.write(indent + "}");
+  }
+
+  private static String oldJSON(WyriwygProduct product) throws IOException {
+    StringWriter wr = new StringWriter();
+    oldJSON(product, wr, "");
+    wr.write("\n");
+    return wr.toString();
+  }
+
+  private static String oldJSON(WyriwygProducts products) throws IOException {
+    StringWriter wr = new StringWriter();
+    int n = 0;
+    wr.write("{\n  \"summary\":" + WRITER.writeValueAsString(products.getSummary()) + ",\n");
+    wr.write("  \"data\":[");
+    for (WyriwygProduct product : products.getData()) {
+      if (0 < n)
+        wr.write(",\n");
+      oldJSON(product, wr, "    ");
+      n++;
+    }
+    wr.write("\n  ]\n}\n");
+    return wr.toString();
+  }
+
+  private static String oldCSV(WyriwygProducts products) {
+    Collections.sort(products.getSummary().getProperties());
+
+    StringBuilder csv = new StringBuilder(String.join(",", products.getSummary().getProperties()));
+    csv.append("\n");
+    for (WyriwygProduct product : products.getData()) {
+      HashMap<String, String> row = new HashMap<String, String>();
+      int n = 0;
+
+      for (WyriwygProductKeyValuePair kvp : product.getKeyValuePairs())
+        row.put(kvp.getKey(), kvp.getValue());
+      for (String label : products.getSummary().getProperties()) {
+        if (0 < n)
+          csv.append(",");
+        if (row.containsKey(label))
+          csv.append("\"" + row.get(label) + "\"");
+        n++;
+      }
+      csv.append("\n");
+    }
+    return csv.toString();
+  }
+
+  private static String json(WyriwygProduct product) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    WyriwygSerializer.writeJSON(product, os, WRITER);
+    return os.toString(StandardCharsets.UTF_8);
+  }
+
+  private static String json(WyriwygProducts products) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    WyriwygSerializer.writeJSON(products, os, WRITER);
+    return os.toString(StandardCharsets.UTF_8);
+  }
+
+  private static String csv(WyriwygProducts products) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    WyriwygSerializer.writeCSV(products, new OutputStreamWriter(os, StandardCharsets.UTF_8),
+        WRITER);
+    return os.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testSingular() throws IOException {
+    for (String source : SOURCES) {
+      Assertions.assertEquals(oldJSON(old(source)), json(new WyriwygSource(new BytesArray(source))),
+          source);
+      Assertions.assertEquals(oldJSON(old(source)), json(old(source)), source);
+    }
+  }
+
+  @Test
+  public void testPlural() throws IOException {
+    List<WyriwygProduct> sources = new ArrayList<WyriwygProduct>();
+    List<WyriwygProduct> olds = new ArrayList<WyriwygProduct>();
+
+    for (String source : SOURCES) {
+      sources.add(new WyriwygSource(new BytesArray(source)));
+      olds.add(old(source));
+    }
+    Assertions.assertEquals(oldJSON(products(olds)), json(products(sources)));
+    Assertions.assertEquals(oldJSON(products(olds)), json(products(olds)));
+    Assertions.assertEquals(oldCSV(products(olds)), csv(products(sources)));
+    Assertions.assertEquals(oldJSON(products(new ArrayList<WyriwygProduct>())),
+        json(products(new ArrayList<WyriwygProduct>())));
+  }
+
+  @Test
+  public void testNullValue() throws IOException {
+    WyriwygProduct product = new WyriwygProduct();
+    WyriwygProductKeyValuePair kvp = new WyriwygProductKeyValuePair();
+
+    kvp.setKey("title");
+    product.addKeyValuePairsItem(kvp);
+    Assertions.assertEquals("{\n  \"title\":null}\n", json(product));
+    Assertions.assertEquals(oldJSON(product), json(product));
+  }
+
+  @Test
+  public void testEscapedKeys() throws IOException {
+    // the old serializers wrote these keys as they were, which was not JSON
+    String source = "{\"a\\\"b\":\"1\",\"c\\\\d/e\":\"2\",\"tab\\tkey\":\"3\"}";
+    JsonNode written = new ObjectMapper().readTree(json(new WyriwygSource(new BytesArray(source))));
+
+    Assertions.assertEquals("1", written.get("a\"b").asText());
+    Assertions.assertEquals("2", written.get("c\\d.e").asText());
+    Assertions.assertEquals("3", written.get("tab\tkey").asText());
+    Assertions.assertThrows(IOException.class,
+        () -> new ObjectMapper().readTree(oldJSON(old(source))));
+  }
+}